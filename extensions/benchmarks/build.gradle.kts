@@ -0,0 +1,18 @@
+plugins {
+    `java-library`
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+dependencies {
+    jmh(project(":extensions:trusted-participants-whitelist"))
+    jmh(project(":extensions:policies"))
+}
+
+jmh {
+    includes.set(listOf(providers.gradleProperty("jmhIncludes").getOrElse(".*")))
+    warmupIterations.set(2)
+    warmup.set("1s")
+    iterations.set(5)
+    timeOnIteration.set("1s")
+    fork.set(1)
+}
@@ -0,0 +1,76 @@
+package org.eclipse.edc.mvd.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.mvd.context.ExchangeContext;
+import org.eclipse.edc.mvd.model.DataExchangeEntry;
+import org.eclipse.edc.mvd.model.DataExchangeState;
+import org.eclipse.edc.mvd.model.Participant;
+import org.eclipse.edc.mvd.service.DataExchangeQueueManager;
+import org.eclipse.edc.mvd.store.InMemoryDataExchangeEntryStore;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.net.http.HttpClient;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue operations on a trustee holding {@code size} READY entries. {@code findOrCreateEntry}
+ * attaches a consumer notification to one of the entries, {@code processEntries} sweeps
+ * the queue once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DataExchangeQueueManagerBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    public int size;
+
+    private DataExchangeQueueManager queueManager;
+    private final List<List<String>> assets = new ArrayList<>();
+    private final Participant consumer = Participants.participant(-2);
+
+    @Setup
+    public void setUp() {
+        ExchangeContext.clear();
+        InMemoryDataExchangeEntryStore store = new InMemoryDataExchangeEntryStore();
+        queueManager = new DataExchangeQueueManager(store, new ObjectMapper(), HttpClient.newHttpClient(), new Monitor() { });
+        Participant provider = Participants.participant(-1);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            List<String> entryAssets = List.of("asset-" + i + "-a", "asset-" + i + "-b");
+            assets.add(entryAssets);
+            // READY entries neither time out nor leave the queue while sweeping
+            store.create(new DataExchangeEntry(UUID.randomUUID().toString(), provider, consumer, entryAssets,
+                    DataExchangeState.READY, now, now, 0));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ExchangeContext.clear();
+    }
+
+    @Benchmark
+    public String findOrCreateEntry() {
+        return queueManager.addConsumerNotification(consumer, assets.get(ThreadLocalRandom.current().nextInt(size)));
+    }
+
+    @Benchmark
+    public void processEntries() {
+        queueManager.processEntries();
+    }
+}
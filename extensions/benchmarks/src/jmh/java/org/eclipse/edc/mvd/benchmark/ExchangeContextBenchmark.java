@@ -0,0 +1,84 @@
+package org.eclipse.edc.mvd.benchmark;
+
+import org.eclipse.edc.mvd.context.ExchangeContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-entry lookups and deletions on a context holding {@code storedAssets} assets,
+ * spread over entries of {@code assetsPerEntry} assets each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExchangeContextBenchmark {
+
+    private static final String PROVIDER = "http://provider-connector:9191";
+    private static final String CONSUMER = "http://consumer-connector:9191";
+
+    @Param({ "10", "1000", "100000", "1000000" })
+    public int storedAssets;
+
+    @Param({ "4" })
+    public int assetsPerEntry;
+
+    private int entries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExchangeContext.clear();
+        entries = storedAssets / assetsPerEntry;
+        for (int e = 0; e < entries; e++) {
+            putEntry(e);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ExchangeContext.clear();
+    }
+
+    @Benchmark
+    public List<String> assetsOfEntry() {
+        return ExchangeContext.assetsOfEntry(entryId(randomEntry()));
+    }
+
+    @Benchmark
+    public String providerOfAsset() {
+        return ExchangeContext.provider(entryId(randomEntry()) + "::asset0");
+    }
+
+    @Benchmark
+    public void removeAndRestoreEntry() {
+        int entry = randomEntry();
+        ExchangeContext.removeEntry(entryId(entry));
+        putEntry(entry);
+    }
+
+    private int randomEntry() {
+        return ThreadLocalRandom.current().nextInt(entries);
+    }
+
+    private void putEntry(int entry) {
+        String entryId = entryId(entry);
+        for (int a = 0; a < assetsPerEntry; a++) {
+            ExchangeContext.put(entryId + "::asset" + a, PROVIDER, CONSUMER);
+        }
+    }
+
+    private static String entryId(int entry) {
+        return "entry-" + entry;
+    }
+}
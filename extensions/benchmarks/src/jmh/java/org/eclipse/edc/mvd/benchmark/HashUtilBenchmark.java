@@ -0,0 +1,40 @@
+package org.eclipse.edc.mvd.benchmark;
+
+import org.eclipse.edc.mvd.model.Participant;
+import org.eclipse.edc.mvd.util.HashUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hash of a whitelist with {@code size} participants, computed on every negotiation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HashUtilBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    public int size;
+
+    private List<Participant> participants;
+
+    @Setup
+    public void setUp() {
+        participants = Participants.participants(0, size);
+    }
+
+    @Benchmark
+    public String computeHash() throws NoSuchAlgorithmException {
+        return HashUtil.computeHash(participants);
+    }
+}
@@ -0,0 +1,27 @@
+package org.eclipse.edc.mvd.benchmark;
+
+import org.eclipse.edc.mvd.model.Participant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test data shared by the benchmarks.
+ */
+final class Participants {
+
+    private Participants() { }
+
+    static Participant participant(int index) {
+        return new Participant("did:web:participant" + index, "participant" + index,
+                "http://participant" + index + ":9191/api/trusted-participants");
+    }
+
+    static List<Participant> participants(int from, int count) {
+        List<Participant> participants = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            participants.add(participant(i));
+        }
+        return participants;
+    }
+}
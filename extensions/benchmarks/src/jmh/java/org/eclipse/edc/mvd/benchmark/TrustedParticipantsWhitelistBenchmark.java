@@ -0,0 +1,80 @@
+package org.eclipse.edc.mvd.benchmark;
+
+import org.eclipse.edc.mvd.TrustedParticipantsWhitelist;
+import org.eclipse.edc.mvd.model.Participant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whitelist operations on a whitelist of {@code size} participants. The {@code contended}
+ * group runs lookups on several threads while another thread keeps changing the whitelist;
+ * {@code match} is the matching done by receive-negotiation against a peer whitelist of the
+ * same size that shares one participant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TrustedParticipantsWhitelistBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    public int size;
+
+    private TrustedParticipantsWhitelist whitelist;
+    private List<Participant> peerWhitelist;
+    private Participant changing;
+
+    @Setup
+    public void setUp() {
+        whitelist = TrustedParticipantsWhitelist.getInstance();
+        whitelist.clear();
+        Participants.participants(0, size).forEach(whitelist::addTrustedParticipant);
+        // the peer trusts other participants and the last one of ours
+        peerWhitelist = Participants.participants(size - 1, size);
+        changing = Participants.participant(-1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        whitelist.clear();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public boolean contains() {
+        return whitelist.containsTrustedParticipant(Participants.participant(ThreadLocalRandom.current().nextInt(size)));
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public List<Participant> get() {
+        return whitelist.getTrustedParticipants();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public boolean addAndRemove() {
+        whitelist.addTrustedParticipant(changing);
+        return whitelist.removeTrustedParticipant(changing);
+    }
+
+    @Benchmark
+    public List<Participant> match() {
+        return whitelist.matchTrustedParticipants(peerWhitelist);
+    }
+}
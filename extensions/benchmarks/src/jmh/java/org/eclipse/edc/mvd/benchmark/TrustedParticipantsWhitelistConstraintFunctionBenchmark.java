@@ -0,0 +1,72 @@
+package org.eclipse.edc.mvd.benchmark;
+
+import org.eclipse.edc.identityhub.spi.credentials.model.Credential;
+import org.eclipse.edc.identityhub.spi.credentials.model.CredentialSubject;
+import org.eclipse.edc.mvd.TrustedParticipantsWhitelist;
+import org.eclipse.edc.mvd.TrustedParticipantsWhitelistConstraintFunction;
+import org.eclipse.edc.policy.engine.spi.PolicyContext;
+import org.eclipse.edc.policy.engine.spi.PolicyContextImpl;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.spi.agent.ParticipantAgent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Policy evaluation for a participant at the end of a whitelist of {@code size} participants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TrustedParticipantsWhitelistConstraintFunctionBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    public int size;
+
+    private final TrustedParticipantsWhitelistConstraintFunction function = new TrustedParticipantsWhitelistConstraintFunction();
+    private final Permission permission = Permission.Builder.newInstance().build();
+    private PolicyContext policyContext;
+
+    @Setup
+    public void setUp() {
+        TrustedParticipantsWhitelist whitelist = TrustedParticipantsWhitelist.getInstance();
+        whitelist.clear();
+        Participants.participants(0, size).forEach(whitelist::addTrustedParticipant);
+
+        Credential credential = Credential.Builder.newInstance()
+                .id("benchmark")
+                .context("benchmark")
+                .type("VerifiableCredential")
+                .issuer("did:web:issuer")
+                .issuanceDate(new Date())
+                .credentialSubject(CredentialSubject.Builder.newInstance()
+                        .id("benchmark")
+                        .claim("participant", Participants.participant(size - 1).getName())
+                        .build())
+                .build();
+        PolicyContextImpl context = new PolicyContextImpl();
+        context.putContextData(ParticipantAgent.class, new ParticipantAgent(Map.of("credential", credential), Map.of()));
+        policyContext = context;
+    }
+
+    @TearDown
+    public void tearDown() {
+        TrustedParticipantsWhitelist.getInstance().clear();
+    }
+
+    @Benchmark
+    public boolean evaluateIn() {
+        return function.evaluate(Operator.IN, "true", permission, policyContext);
+    }
+}
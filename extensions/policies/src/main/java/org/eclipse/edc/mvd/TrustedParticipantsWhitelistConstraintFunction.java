@@ -50,7 +50,7 @@ public class TrustedParticipantsWhitelistConstraintFunction implements AtomicCon
     if (rightValueBoolean && !participants.isEmpty()) {
       // Need List of Names instead of List of Participants
       var trustedParticipantNames = new HashSet<>(trustedParticipants.getTrustedParticipants()).stream()
-          .map(Participant::name)
+          .map(Participant::getName)
           .collect(Collectors.toSet());
       var participantsSet = new HashSet<>(participants);
       return switch (operator) {
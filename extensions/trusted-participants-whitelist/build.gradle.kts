@@ -10,4 +10,9 @@ dependencies {
     implementation(libs.jakarta.rsApi)
     implementation(libs.jakarta.inject.api)
     compileOnly(libs.jakarta.cdi.api)
-}
\ No newline at end of file
+    // provided by the Jetty server of the connector
+    compileOnly("jakarta.servlet:jakarta.servlet-api:5.0.0")
+    testImplementation("jakarta.servlet:jakarta.servlet-api:5.0.0")
+    testImplementation(libs.h2)
+    testImplementation(libs.jol.core)
+}
@@ -0,0 +1,79 @@
+/*
+ *  Copyright (c) 2024 Fraunhofer Institute for Software and Systems Engineering
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Fraunhofer Institute for Software and Systems Engineering - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.edc.mvd.model.Participant;
+import org.eclipse.edc.mvd.tracing.Tracer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+
+/**
+ * Streams the results of a bulk negotiation as newline-delimited JSON in the order the
+ * counterparties answer. The stream ends after the last result; negotiations that have not
+ * finished when the client disconnects are cancelled. The span of the bulk request ends with
+ * the stream, so it covers the spans of all its negotiations.
+ */
+class BulkNegotiationStreamingOutput implements StreamingOutput {
+
+  /**
+   * @param index    Position of the negotiation in the bulk request.
+   * @param response The response /negotiate would have returned for this negotiation.
+   */
+  record Result(int index, Participant dataSource, long durationMillis, JsonNode response) {
+  }
+
+  private final BlockingQueue<Result> results;
+  private final List<Future<?>> negotiations;
+  private final ObjectMapper objectMapper;
+  private final Tracer.ActiveSpan span;
+
+  BulkNegotiationStreamingOutput(BlockingQueue<Result> results, List<Future<?>> negotiations, ObjectMapper objectMapper,
+                                 Tracer.ActiveSpan span) {
+    this.results = results;
+    this.negotiations = negotiations;
+    this.objectMapper = objectMapper;
+    this.span = span;
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    int written = 0;
+    try {
+      while (written < negotiations.size()) {
+        // every negotiation puts exactly one result, bounded by the per-peer timeouts
+        output.write(objectMapper.writeValueAsBytes(results.take()));
+        output.write('\n');
+        output.flush();
+        written++;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      if (written < negotiations.size()) {
+        negotiations.forEach(negotiation -> negotiation.cancel(true));
+        span.attribute("error", "Stream ended after " + written + " of " + negotiations.size() + " results").end("error");
+      } else {
+        span.end("ok");
+      }
+    }
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ *  Copyright (c) 2024 Fraunhofer Institute for Software and Systems Engineering
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Fraunhofer Institute for Software and Systems Engineering - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.edc.mvd.model.EntryStateEvent;
+import org.eclipse.edc.mvd.service.EntryEventPublisher;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams the entry state transitions of a subscription as server-sent events. Events the
+ * client was too slow for are reported in a "dropped" event. The stream ends when the client
+ * disconnects or the maximum duration elapsed, which also ends the subscription.
+ */
+class EntryEventStreamingOutput implements StreamingOutput {
+
+  private static final long HEARTBEAT_SECONDS = 5;
+
+  private final EntryEventPublisher.Subscription subscription;
+  private final ObjectMapper objectMapper;
+  private final long maxDurationMillis;
+  private final Runnable onClose;
+
+  /**
+   * @param onClose Called once the stream has ended, e.g. to free its slot.
+   */
+  EntryEventStreamingOutput(EntryEventPublisher.Subscription subscription, ObjectMapper objectMapper, long maxDurationMillis,
+                            Runnable onClose) {
+    this.subscription = subscription;
+    this.objectMapper = objectMapper;
+    this.maxDurationMillis = maxDurationMillis;
+    this.onClose = onClose;
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    long deadline = System.currentTimeMillis() + maxDurationMillis;
+    try (subscription) {
+      // tells the client the subscription is in place before the first transition arrives
+      output.write(":\n\n".getBytes(StandardCharsets.UTF_8));
+      output.flush();
+      while (true) {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+          return;
+        }
+        EntryStateEvent event = subscription.poll(Math.min(remaining, TimeUnit.SECONDS.toMillis(HEARTBEAT_SECONDS)), TimeUnit.MILLISECONDS);
+        long dropped = subscription.takeDropped();
+        if (dropped > 0) {
+          output.write(("event: dropped\ndata: {\"dropped\":" + dropped + "}\n\n").getBytes(StandardCharsets.UTF_8));
+        }
+        if (event != null) {
+          output.write(("id: " + event.sequence() + "\nevent: " + event.state() + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+          output.write(objectMapper.writeValueAsBytes(event));
+          output.write("\n\n".getBytes(StandardCharsets.UTF_8));
+        } else {
+          // comment line, lets us notice disconnected clients while nothing happens
+          output.write(":\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+        output.flush();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      onClose.run();
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ *  Copyright (c) 2024 Fraunhofer Institute for Software and Systems Engineering
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Fraunhofer Institute for Software and Systems Engineering - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.edc.mvd.model.InMemoryMonitor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Tails the log entries of an InMemoryMonitor as newline-delimited JSON or as server-sent
+ * events. The stream ends when the client disconnects or the maximum duration elapsed.
+ */
+class LogStreamingOutput implements StreamingOutput {
+
+  record LogLine(long sequence, String timestamp, String level, String message) {
+  }
+
+  private static final long HEARTBEAT_SECONDS = 5;
+  private static final byte[] HEARTBEAT_EVENT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] HEARTBEAT_LINE = "\n".getBytes(StandardCharsets.UTF_8);
+
+  private final InMemoryMonitor monitor;
+  private final ObjectMapper objectMapper;
+  private final Predicate<InMemoryMonitor.LogEntry> filter;
+  private final boolean serverSentEvents;
+  private final long afterSequence;
+  private final long maxDurationMillis;
+  private final Runnable onClose;
+
+  /**
+   * @param onClose Called once the stream has ended, e.g. to free its slot.
+   */
+  LogStreamingOutput(InMemoryMonitor monitor, ObjectMapper objectMapper, Predicate<InMemoryMonitor.LogEntry> filter,
+                     boolean serverSentEvents, long afterSequence, long maxDurationMillis, Runnable onClose) {
+    this.monitor = monitor;
+    this.objectMapper = objectMapper;
+    this.filter = filter;
+    this.serverSentEvents = serverSentEvents;
+    this.afterSequence = afterSequence;
+    this.maxDurationMillis = maxDurationMillis;
+    this.onClose = onClose;
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    long deadline = System.currentTimeMillis() + maxDurationMillis;
+    long cursor = afterSequence;
+    try {
+      while (true) {
+        for (InMemoryMonitor.LogEntry entry : monitor.getLogEntriesAfter(cursor)) {
+          cursor = entry.getSequence();
+          if (filter.test(entry)) {
+            writeEntry(output, entry);
+          }
+        }
+        output.flush();
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+          return;
+        }
+        if (!monitor.awaitEntriesAfter(cursor, Math.min(remaining, TimeUnit.SECONDS.toMillis(HEARTBEAT_SECONDS)), TimeUnit.MILLISECONDS)) {
+          // comment line or empty line, lets us notice disconnected clients while the log is quiet
+          output.write(serverSentEvents ? HEARTBEAT_EVENT : HEARTBEAT_LINE);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      onClose.run();
+    }
+  }
+
+  private void writeEntry(OutputStream output, InMemoryMonitor.LogEntry entry) throws IOException {
+    byte[] json = objectMapper.writeValueAsBytes(new LogLine(
+            entry.getSequence(), entry.getTimestamp().toString(), entry.getLevel(), entry.getMessage()));
+    if (serverSentEvents) {
+      output.write(("id: " + entry.getSequence() + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+      output.write(json);
+      output.write("\n\n".getBytes(StandardCharsets.UTF_8));
+    } else {
+      output.write(json);
+      output.write('\n');
+    }
+  }
+}
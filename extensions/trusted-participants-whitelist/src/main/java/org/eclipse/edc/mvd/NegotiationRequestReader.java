@@ -0,0 +1,121 @@
+/*
+ *  Copyright (c) 2024 Fraunhofer Institute for Software and Systems Engineering
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Fraunhofer Institute for Software and Systems Engineering - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.mvd.model.NegotiationRequest;
+import org.eclipse.edc.mvd.model.Participant;
+import org.eclipse.edc.mvd.util.HashUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.NoSuchAlgorithmException;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Reads a NegotiationRequest from a stream without keeping its trusted participants. Each
+ * participant is added to the hash and looked up in the whitelist as soon as it is parsed, so
+ * the memory needed does not grow with the list sent by the counterparty.
+ */
+class NegotiationRequestReader {
+
+  /**
+   * @param request  The request without its trusted participants.
+   * @param hash     The hash of the trusted participants of the request.
+   * @param matches  The participants of the request that are also in the whitelist, in whitelist order.
+   * @param trustees The number of trusted participants in the request.
+   */
+  record Result(NegotiationRequest request, String hash, List<Participant> matches, int trustees) {
+  }
+
+  /**
+   * Thrown as soon as a request contains more trusted participants than allowed.
+   */
+  static class TooManyTrusteesException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    TooManyTrusteesException(int maxTrustees) {
+      super("A negotiation request must contain at most " + maxTrustees + " trusted participants");
+    }
+  }
+
+  private static final TypeReference<List<String>> ASSETS = new TypeReference<>() {
+  };
+  private static final TypeReference<List<List<String>>> ASSET_GROUPS = new TypeReference<>() {
+  };
+
+  private final ObjectMapper objectMapper;
+  private final int maxTrustees;
+
+  NegotiationRequestReader(ObjectMapper objectMapper, int maxTrustees) {
+    this.objectMapper = objectMapper;
+    this.maxTrustees = maxTrustees;
+  }
+
+  Result read(InputStream input, TrustedParticipantsWhitelist.Snapshot whitelist) throws IOException, NoSuchAlgorithmException {
+    try (JsonParser parser = objectMapper.createParser(input)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new JsonParseException(parser, "Expected a negotiation request object");
+      }
+      Participant dataSource = null;
+      Participant dataSink = null;
+      List<String> assets = null;
+      String hash = null;
+      List<List<String>> assetGroups = null;
+      HashUtil.ParticipantDigest digest = HashUtil.newDigest();
+      BitSet matched = new BitSet(whitelist.size());
+      int trustees = 0;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        JsonToken value = parser.nextToken();
+        switch (field) {
+          case "dataSource" -> dataSource = objectMapper.readValue(parser, Participant.class);
+          case "dataSink" -> dataSink = objectMapper.readValue(parser, Participant.class);
+          case "assets" -> assets = objectMapper.readValue(parser, ASSETS);
+          case "hash" -> hash = objectMapper.readValue(parser, String.class);
+          case "assetGroups" -> assetGroups = objectMapper.readValue(parser, ASSET_GROUPS);
+          case "trustedDataTrustees" -> {
+            if (value == JsonToken.START_ARRAY) {
+              while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (++trustees > maxTrustees) {
+                  throw new TooManyTrusteesException(maxTrustees);
+                }
+                Participant participant = objectMapper.readValue(parser, Participant.class);
+                if (participant == null) {
+                  throw new JsonParseException(parser, "Trusted participants must not be null");
+                }
+                digest.add(participant);
+                int position = whitelist.indexOf(participant);
+                if (position >= 0) {
+                  matched.set(position);
+                }
+              }
+            } else if (value != JsonToken.VALUE_NULL) {
+              throw new JsonParseException(parser, "Expected a list of trusted participants");
+            }
+          }
+          default -> parser.skipChildren();
+        }
+      }
+      return new Result(new NegotiationRequest(dataSource, dataSink, null, assets, hash, assetGroups),
+              digest.finish(), whitelist.select(matched), trustees);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ *  Copyright (c) 2024 Fraunhofer Institute for Software and Systems Engineering
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Fraunhofer Institute for Software and Systems Engineering - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import java.time.Duration;
+
+/**
+ * Limits and timeouts of the negotiations and notifications handled by the
+ * {@link TrustedParticipantsWhitelistApiController}.
+ *
+ * @param bulkParallelism The maximum number of negotiations of /negotiate-bulk running at once.
+ * @param peerTimeout     The time a counterparty or trustee has to answer a call of /negotiate-bulk.
+ * @param maxTrustees     The maximum number of trusted participants a counterparty may send in a negotiation.
+ * @param defaultDeadline The time a request without a deadline header may take, no deadline if zero.
+ * @param maxConcurrentNegotiations The maximum number of received negotiations handled at once, 0 for no limit.
+ * @param participantRate  The negotiations and notifications per second a client may send, 0 for no limit.
+ * @param participantBurst The negotiations and notifications a client may send at once.
+ */
+public record NegotiationSettings(int bulkParallelism, Duration peerTimeout, int maxTrustees, Duration defaultDeadline,
+                                  int maxConcurrentNegotiations, double participantRate, int participantBurst) {
+
+  public static final NegotiationSettings DEFAULT = new NegotiationSettings(16, Duration.ofSeconds(10), 100_000, Duration.ofSeconds(30),
+          0, 0, 100);
+
+  public NegotiationSettings {
+    if (bulkParallelism <= 0 || maxTrustees <= 0) {
+      throw new IllegalArgumentException("Bulk parallelism and maximum number of trustees must be positive");
+    }
+    if (maxConcurrentNegotiations < 0 || participantRate < 0 || participantBurst <= 0) {
+      throw new IllegalArgumentException("Admission limits must not be negative and the burst must be positive");
+    }
+    if (defaultDeadline.isNegative()) {
+      throw new IllegalArgumentException("Default deadline must not be negative: " + defaultDeadline);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2024 Fraunhofer Institute for Software and Systems Engineering
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Fraunhofer Institute for Software and Systems Engineering - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.BeanParam;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.core.Context;
+import org.eclipse.edc.mvd.tracing.Tracer;
+import org.eclipse.edc.mvd.util.Deadline;
+
+import java.security.Principal;
+
+/**
+ * Headers of a request that are passed along to every hop of an exchange: the W3C trace context
+ * and the deadline of the client. It also identifies the client for rate limiting, by the
+ * connection rather than by anything the client states. Endpoints receive it as {@link BeanParam}.
+ */
+public class RequestContext {
+
+  @HeaderParam(Tracer.TRACEPARENT)
+  private String traceparent;
+  @HeaderParam(Deadline.HEADER)
+  private String deadline;
+  @Context
+  private HttpServletRequest request;
+
+  /**
+   * Creates a context without trace context and deadline.
+   */
+  public RequestContext() {
+  }
+
+  /**
+   * @param traceparent W3C trace context of the caller, a new trace is started if missing.
+   * @param deadline    Unix epoch milliseconds after which the caller no longer waits.
+   */
+  public RequestContext(String traceparent, String deadline) {
+    this(traceparent, deadline, null);
+  }
+
+  /**
+   * @param request The HTTP request the client is identified by.
+   */
+  public RequestContext(String traceparent, String deadline, HttpServletRequest request) {
+    this.traceparent = traceparent;
+    this.deadline = deadline;
+    this.request = request;
+  }
+
+  public String traceparent() {
+    return traceparent;
+  }
+
+  public String deadline() {
+    return deadline;
+  }
+
+  /**
+   * @return the authenticated name of the client, or its address if it is not authenticated;
+   *         null outside of an HTTP request.
+   */
+  public String client() {
+    if (request == null) {
+      return null;
+    }
+    Principal principal = request.getUserPrincipal();
+    return principal != null ? principal.getName() : request.getRemoteAddr();
+  }
+}
@@ -15,9 +15,14 @@
 package org.eclipse.edc.mvd;
 
 import org.eclipse.edc.mvd.model.Participant;
+import org.eclipse.edc.mvd.util.BloomFilter;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Represents a whitelist of trusted participants. This class uses the Singleton
@@ -25,14 +30,19 @@ import java.util.List;
  * to ensure that only one instance of the whitelist is used throughout the
  * application.
  * It provides methods to add, remove, and retrieve trusted participants.
+ * The whitelist is read on every negotiation and rarely changed, hence it is
+ * backed by a copy-on-write list that can be read concurrently without locking.
+ * Every change also publishes a {@link Snapshot} indexed by participant key, so
+ * the participants of another party can be matched without scanning the list.
  */
 public class TrustedParticipantsWhitelist {
 
   private static TrustedParticipantsWhitelist instance;
-  private final List<Participant> trustedParticipants;
+  private final CopyOnWriteArrayList<Participant> trustedParticipants;
+  private volatile Snapshot snapshot = new Snapshot(List.of());
 
   private TrustedParticipantsWhitelist() {
-    this.trustedParticipants = new ArrayList<>();
+    this.trustedParticipants = new CopyOnWriteArrayList<>();
   }
 
   /**
@@ -56,12 +66,8 @@ public class TrustedParticipantsWhitelist {
    * @return true if the participant was added, false if the participant already
    *         exists.
    */
-  public boolean addTrustedParticipant(Participant participant) {
-    if (!containsTrustedParticipant(participant)) {
-      trustedParticipants.add(participant);
-      return true;
-    }
-    return false;
+  public synchronized boolean addTrustedParticipant(Participant participant) {
+    return changed(trustedParticipants.addIfAbsent(participant));
   }
 
   /**
@@ -79,8 +85,8 @@ public class TrustedParticipantsWhitelist {
    * @return true if the participant is removed.
    *
    */
-  public boolean removeTrustedParticipant(Participant participant) {
-    return trustedParticipants.remove(participant);
+  public synchronized boolean removeTrustedParticipant(Participant participant) {
+    return changed(trustedParticipants.remove(participant));
   }
 
   /**
@@ -92,12 +98,107 @@ public class TrustedParticipantsWhitelist {
     return trustedParticipants.contains(participant);
   }
 
+  /**
+   * Matches the participants trusted by another party against the whitelist.
+   *
+   * @param candidates The participants trusted by the other party.
+   * @return The trusted participants contained in both lists, in whitelist order.
+   */
+  public List<Participant> matchTrustedParticipants(List<Participant> candidates) {
+    Snapshot current = snapshot;
+    BitSet matched = new BitSet(current.size());
+    for (Participant candidate : candidates) {
+      int position = current.indexOf(candidate);
+      if (position >= 0) {
+        matched.set(position);
+      }
+    }
+    return current.select(matched);
+  }
+
+  /**
+   * @return the current content of the whitelist, unaffected by later changes.
+   */
+  public Snapshot snapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Matches the whitelist against a Bloom filter of the participants trusted by another party.
+   * The result may contain participants the other party does not trust, it has to confirm them.
+   *
+   * @param filter A filter of the {@link #key keys} of the participants trusted by the other party.
+   * @return The trusted participants that may be contained in the filter, in whitelist order.
+   */
+  public List<Participant> matchTrustedParticipants(BloomFilter filter) {
+    return trustedParticipants.stream()
+            .filter(p -> filter.mightContain(key(p)))
+            .toList();
+  }
+
+  /**
+   * Creates a Bloom filter of the keys of the trusted participants.
+   */
+  public BloomFilter filterTrustedParticipants(double falsePositiveRate) {
+    return BloomFilter.of(trustedParticipants.stream().map(TrustedParticipantsWhitelist::key).toList(), falsePositiveRate);
+  }
+
+  /**
+   * @return the key two parties compare participants by, i.e. their name and URL.
+   */
+  public static String key(Participant participant) {
+    return participant.getName() + "\n" + participant.getUrl();
+  }
+
   /**
    * Clears all trusted participants from the whitelist.
    * This method is particularly useful for resetting the whitelist state during
    * testing.
    */
-  public void clear() {
+  public synchronized void clear() {
     trustedParticipants.clear();
+    changed(true);
+  }
+
+  private boolean changed(boolean changed) {
+    if (changed) {
+      snapshot = new Snapshot(List.copyOf(trustedParticipants));
+    }
+    return changed;
+  }
+
+  /**
+   * Immutable copy of the whitelist indexed by participant {@link #key}.
+   */
+  public static final class Snapshot {
+
+    private final List<Participant> participants;
+    private final Map<String, Integer> positions;
+
+    private Snapshot(List<Participant> participants) {
+      this.participants = participants;
+      this.positions = new HashMap<>(participants.size() * 2);
+      for (int i = 0; i < participants.size(); i++) {
+        positions.put(key(participants.get(i)), i);
+      }
+    }
+
+    /**
+     * @return the position of the participant in the whitelist, or -1 if it is not trusted.
+     */
+    public int indexOf(Participant participant) {
+      return positions.getOrDefault(key(participant), -1);
+    }
+
+    /**
+     * @return the participants at the given positions, in whitelist order.
+     */
+    public List<Participant> select(BitSet positions) {
+      return positions.stream().mapToObj(participants::get).toList();
+    }
+
+    public int size() {
+      return participants.size();
+    }
   }
 }
@@ -14,36 +14,81 @@
 
 package org.eclipse.edc.mvd;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import jakarta.inject.Inject;
+import org.eclipse.edc.mvd.metrics.Counter;
+import org.eclipse.edc.mvd.metrics.Histogram;
+import org.eclipse.edc.mvd.metrics.MetricsRegistry;
 import org.eclipse.edc.mvd.model.DataExchangeEntry;
+import org.eclipse.edc.mvd.model.DataExchangeEntryView;
 import org.eclipse.edc.mvd.model.DataExchangeState;
 import org.eclipse.edc.mvd.model.DataTrusteeRequest;
+import org.eclipse.edc.mvd.model.EntryStateEvent;
 import org.eclipse.edc.mvd.model.InMemoryMonitor;
 import org.eclipse.edc.mvd.model.NegotiationRequest;
 import org.eclipse.edc.mvd.model.NegotiationResponse;
 import org.eclipse.edc.mvd.model.Participant;
+import org.eclipse.edc.mvd.model.PreNegotiationRequest;
+import org.eclipse.edc.mvd.model.PreNegotiationResponse;
 import org.eclipse.edc.mvd.model.TrustedParticipantsResponse;
 import org.eclipse.edc.mvd.service.DataExchangeQueueManager;
+import org.eclipse.edc.mvd.service.EntryEventPublisher;
+import org.eclipse.edc.mvd.service.NotificationOutbox;
+import org.eclipse.edc.mvd.service.NotificationResult;
+import org.eclipse.edc.mvd.service.PeerCircuitBreakers;
+import org.eclipse.edc.mvd.service.PeerClient;
+import org.eclipse.edc.mvd.store.DataExchangeEntryQuery;
+import org.eclipse.edc.mvd.tracing.Span;
+import org.eclipse.edc.mvd.tracing.Tracer;
+import org.eclipse.edc.mvd.util.BloomFilter;
+import org.eclipse.edc.mvd.util.Deadline;
+import org.eclipse.edc.mvd.util.RateLimiter;
+import org.eclipse.edc.mvd.util.ExpiringCache;
 import org.eclipse.edc.mvd.util.HashUtil;
+import org.eclipse.edc.mvd.util.SingleFlight;
 import org.eclipse.edc.spi.monitor.Monitor;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
 
+import jakarta.ws.rs.BeanParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
@@ -58,12 +103,50 @@ import jakarta.ws.rs.core.Response;
 @Path("/trusted-participants")
 public class TrustedParticipantsWhitelistApiController {
 
-  private NegotiationResponse negotiationResponse;
+  static final String NDJSON = "application/x-ndjson";
+  static final String LOG_CURSOR_HEADER = "X-Log-Cursor";
+  private static final int MAX_STREAM_SECONDS = 300;
+  private static final int MAX_OPEN_STREAMS = 100;
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  private static final int MAX_NOTIFY_BATCH = 1000;
+  private static final int MAX_BULK_NEGOTIATIONS = 10_000;
+  private static final double PREFILTER_FALSE_POSITIVE_RATE = 0.01;
+  private static final int MAX_PREFILTER_LENGTH = 4 * 1024 * 1024;
+  private static final int MAX_TRUSTEE_CANDIDATES = 5;
+  private static final int MAX_RATE_LIMITED_PARTICIPANTS = 100_000;
+  private static final String RETRY_AFTER = "Retry-After";
+  public static final int DEFAULT_NEGOTIATION_RESULTS = 10_000;
+  public static final Duration DEFAULT_NEGOTIATION_RESULT_TTL = Duration.ofHours(1);
+
+  private static final int MAX_ENTRIES_PAGE = 1000;
+  private static final int DEFAULT_ENTRIES_PAGE = 100;
+  private static final int MAX_EVENT_BUFFER = 4096;
+
+  private final ExpiringCache<String, NegotiationResponse> negotiationResults;
+  private volatile String latestNegotiationId;
   private final Monitor monitor;
   private final TrustedParticipantsWhitelist trustedList;
-  private final HttpClient httpClient;
+  private final PeerClient peerClient;
   private final ObjectMapper objectMapper;
   private final DataExchangeQueueManager queueManager;
+  private final MetricsRegistry metrics;
+  private final Histogram hashComputeTime;
+  private final Histogram hashVerifyTime;
+  private final Tracer tracer;
+  private final PeerCircuitBreakers circuitBreakers;
+  private final ExecutorService bulkNegotiations;
+  private final Duration peerTimeout;
+  private final Duration defaultDeadline;
+  private final Semaphore negotiationPermits;
+  private final RateLimiter<String> participantRates;
+  private final NotificationOutbox notificationOutbox;
+  private final NegotiationRequestReader negotiationRequestReader;
+  private final Histogram negotiationParseTime;
+  private final SingleFlight<NegotiationKey, NegotiationOutcome> inFlightNegotiations = new SingleFlight<>();
+  private final Counter coalescedNegotiations;
+  // every open stream holds a request thread, the cap keeps them from starving the API
+  private final Semaphore openStreams = new Semaphore(MAX_OPEN_STREAMS);
 
   /**
    * Constructor for TrustedParticipantsWhitelistApiController.
@@ -72,11 +155,76 @@ public class TrustedParticipantsWhitelistApiController {
    */
   @Inject
   public TrustedParticipantsWhitelistApiController(Monitor monitor, ObjectMapper objectMapper, HttpClient httpClient) {
+    this(monitor, objectMapper, httpClient, new DataExchangeQueueManager(objectMapper, httpClient, monitor));
+  }
+
+  /**
+   * Constructor for TrustedParticipantsWhitelistApiController.
+   *
+   * @param monitor      The monitor used for logging and monitoring.
+   * @param queueManager The queue manager holding the data exchange entries.
+   */
+  public TrustedParticipantsWhitelistApiController(Monitor monitor, ObjectMapper objectMapper, HttpClient httpClient,
+                                                   DataExchangeQueueManager queueManager) {
+    this(monitor, objectMapper, httpClient, queueManager, queueManager.getMetrics());
+  }
+
+  /**
+   * Constructor for TrustedParticipantsWhitelistApiController.
+   *
+   * @param monitor      The monitor used for logging and monitoring.
+   * @param queueManager The queue manager holding the data exchange entries.
+   * @param metrics      The registry the negotiation, notification and HTTP metrics are recorded in.
+   */
+  public TrustedParticipantsWhitelistApiController(Monitor monitor, ObjectMapper objectMapper, HttpClient httpClient,
+                                                   DataExchangeQueueManager queueManager, MetricsRegistry metrics) {
+    this(monitor, objectMapper, httpClient, queueManager, metrics, NegotiationSettings.DEFAULT,
+            new NotificationOutbox(new PeerClient(httpClient, metrics), monitor, metrics),
+            new ExpiringCache<>(DEFAULT_NEGOTIATION_RESULTS, DEFAULT_NEGOTIATION_RESULT_TTL));
+  }
+
+  /**
+   * Constructor for TrustedParticipantsWhitelistApiController.
+   *
+   * @param monitor            The monitor used for logging and monitoring.
+   * @param queueManager       The queue manager holding the data exchange entries.
+   * @param metrics            The registry the negotiation, notification and HTTP metrics are recorded in.
+   * @param settings           The limits and timeouts of negotiations.
+   * @param notificationOutbox The outbox delivering the notifications to the chosen trustee.
+   * @param negotiationResults The responses of the negotiations initiated by this connector, by negotiation id.
+   */
+  public TrustedParticipantsWhitelistApiController(Monitor monitor, ObjectMapper objectMapper, HttpClient httpClient,
+                                                   DataExchangeQueueManager queueManager, MetricsRegistry metrics,
+                                                   NegotiationSettings settings, NotificationOutbox notificationOutbox,
+                                                   ExpiringCache<String, NegotiationResponse> negotiationResults) {
     this.monitor = monitor;
     this.trustedList = TrustedParticipantsWhitelist.getInstance();
-    this.httpClient = httpClient;
+    this.peerClient = new PeerClient(httpClient, metrics);
     this.objectMapper = objectMapper;
-    this.queueManager = new DataExchangeQueueManager(objectMapper, httpClient, monitor);
+    this.queueManager = queueManager;
+    this.metrics = metrics;
+    this.hashComputeTime = metrics.histogram("trustee_hash_seconds", "Time to hash a list of trusted participants.", "operation", "compute");
+    this.hashVerifyTime = metrics.histogram("trustee_hash_seconds", "Time to hash a list of trusted participants.", "operation", "verify");
+    this.tracer = Tracer.getInstance();
+    this.circuitBreakers = PeerCircuitBreakers.getInstance();
+    this.bulkNegotiations = Executors.newFixedThreadPool(settings.bulkParallelism(), runnable -> {
+      Thread thread = new Thread(runnable, "trustee-bulk-negotiation");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.peerTimeout = settings.peerTimeout();
+    this.defaultDeadline = settings.defaultDeadline();
+    this.negotiationPermits = settings.maxConcurrentNegotiations() > 0 ? new Semaphore(settings.maxConcurrentNegotiations()) : null;
+    this.participantRates = settings.participantRate() > 0
+            ? new RateLimiter<>(settings.participantRate(), settings.participantBurst(), MAX_RATE_LIMITED_PARTICIPANTS)
+            : null;
+    this.negotiationRequestReader = new NegotiationRequestReader(objectMapper, settings.maxTrustees());
+    this.coalescedNegotiations = metrics.counter("trustee_negotiations_coalesced_total",
+            "Negotiations that shared the result of an identical running negotiation.");
+    this.negotiationParseTime = metrics.histogram("trustee_negotiation_read_seconds",
+            "Time to read, hash and match the trusted participants of a received negotiation.");
+    this.notificationOutbox = notificationOutbox;
+    this.negotiationResults = negotiationResults;
   }
 
   /**
@@ -143,27 +291,196 @@ public class TrustedParticipantsWhitelistApiController {
     }
   }
 
+  public String initiateNegotiation(NegotiationRequest negotiationRequest) {
+    return negotiate(negotiationRequest, false, new RequestContext()).body();
+  }
+
   /**
    * Initiates a negotiation with another system to determine common trusted
    * participants.
+   *
+   * @param prefilter Whether to first send a Bloom filter of the whitelist instead of the
+   *                  whitelist itself, and only the confirmed candidates afterwards.
+   * @param context   Trace context and deadline of the caller, the configured default
+   *                  deadline applies if it has none.
+   * @return the negotiation outcome; if the counterparty answered with an error, its status
+   *         and Retry-After header.
    */
-
   @POST
   @Path("negotiate")
-  public String initiateNegotiation(NegotiationRequest negotiationRequest) {
+  public Response initiateNegotiation(NegotiationRequest negotiationRequest,
+                                      @QueryParam("prefilter") boolean prefilter,
+                                      @BeanParam RequestContext context) {
+    NegotiationOutcome outcome = negotiate(negotiationRequest, prefilter, context);
+    Response.ResponseBuilder response = Response.status(outcome.status())
+            .entity(outcome.body())
+            .type(MediaType.APPLICATION_JSON);
+    if (outcome.retryAfter() != null) {
+      response.header(RETRY_AFTER, outcome.retryAfter());
+    }
+    return response.build();
+  }
+
+  private NegotiationOutcome negotiate(NegotiationRequest negotiationRequest, boolean prefilter, RequestContext context) {
+    return Deadline.within(Deadline.parse(context.deadline(), defaultDeadline),
+            () -> tracer.inSpan("negotiate", context.traceparent(), () -> negotiate(negotiationRequest, null, prefilter)));
+  }
+
+  public Response initiateBulkNegotiation(List<NegotiationRequest> negotiationRequests) {
+    return initiateBulkNegotiation(negotiationRequests, false, new RequestContext());
+  }
+
+  /**
+   * Negotiates a trustee with many counterparties at once. The negotiations run concurrently,
+   * up to the configured parallelism shared by all bulk requests, and every call to a peer is
+   * bounded by the per-peer timeout. The result of each negotiation is streamed as a line of
+   * newline-delimited JSON as soon as it is known.
+   *
+   * @param negotiationRequests One request per counterparty, as for /negotiate.
+   * @param prefilter           Whether to pre-negotiate with a Bloom filter, as for /negotiate.
+   * @param context             Trace context of the caller, and its deadline after which pending
+   *                            negotiations are dropped. The default deadline does not apply,
+   *                            as the per-peer timeout already bounds every negotiation.
+   */
+  @POST
+  @Path("negotiate-bulk")
+  @Produces({ NDJSON, MediaType.APPLICATION_JSON })
+  public Response initiateBulkNegotiation(List<NegotiationRequest> negotiationRequests,
+                                          @QueryParam("prefilter") boolean prefilter,
+                                          @BeanParam RequestContext context) {
+    if (negotiationRequests == null || negotiationRequests.isEmpty() || negotiationRequests.size() > MAX_BULK_NEGOTIATIONS) {
+      return Response.status(Response.Status.BAD_REQUEST)
+              .entity("{\"error\":\"A bulk negotiation must contain 1 to " + MAX_BULK_NEGOTIATIONS + " requests\"}")
+              .type(MediaType.APPLICATION_JSON)
+              .build();
+    }
+    // the span ends with the stream, after the negotiations it covers
+    Tracer.ActiveSpan span = tracer.startServerSpan("negotiate-bulk", context.traceparent());
+    monitor.info("Initiating " + negotiationRequests.size() + " trustee negotiations");
+    String parent = span.traceparent();
+    Deadline bulkDeadline = Deadline.parse(context.deadline());
+    BlockingQueue<BulkNegotiationStreamingOutput.Result> results = new LinkedBlockingQueue<>();
+    List<Future<?>> negotiations = new ArrayList<>(negotiationRequests.size());
     try {
-      monitor.info("Initiating trustee negotiation");
-      // Get the list of trusted participants from whitelist
-      List<Participant> trustedDataTrustees = trustedList.getTrustedParticipants();
-      // Compute the hash of the trusted participants
-      String hash = HashUtil.computeHash(trustedDataTrustees);
+      for (int i = 0; i < negotiationRequests.size(); i++) {
+        int index = i;
+        NegotiationRequest negotiationRequest = negotiationRequests.get(i);
+        negotiations.add(bulkNegotiations.submit(() -> {
+          long start = System.nanoTime();
+          String response = "{\"error\":\"Negotiation did not finish\"}";
+          try {
+            response = Deadline.within(bulkDeadline,
+                    () -> tracer.inSpan("negotiate", parent, () -> negotiate(negotiationRequest, peerTimeout, prefilter)).body());
+          } finally {
+            results.add(new BulkNegotiationStreamingOutput.Result(index, negotiationRequest.dataSource(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), readResponse(response)));
+          }
+        }));
+      }
+    } catch (RuntimeException e) {
+      negotiations.forEach(negotiation -> negotiation.cancel(true));
+      span.attribute("error", e.getMessage()).end("error");
+      throw e;
+    }
+    return Response.ok(new BulkNegotiationStreamingOutput(results, negotiations, objectMapper, span)).type(NDJSON).build();
+  }
+
+  private JsonNode readResponse(String response) {
+    try {
+      return objectMapper.readTree(response);
+    } catch (JsonProcessingException e) {
+      // a counterparty answered with something other than JSON
+      return TextNode.valueOf(response);
+    }
+  }
+
+  /**
+   * Runs the negotiation, or waits for an identical one that is already running and returns
+   * its response, so concurrent callers cause a single negotiation and trustee notification.
+   *
+   * @param timeout   The time the counterparty and the trustee have to answer, no limit if null.
+   * @param prefilter Whether to pre-negotiate the candidates with a Bloom filter of the whitelist.
+   */
+  private NegotiationOutcome negotiate(NegotiationRequest negotiationRequest, Duration timeout, boolean prefilter) {
+    if (negotiationRequest.dataSource() == null || negotiationRequest.dataSink() == null) {
+      return runNegotiation(negotiationRequest, timeout, prefilter);
+    }
+    NegotiationKey key = new NegotiationKey(TrustedParticipantsWhitelist.key(negotiationRequest.dataSource()),
+            TrustedParticipantsWhitelist.key(negotiationRequest.dataSink()),
+            negotiationRequest.assets() == null ? null : new HashSet<>(negotiationRequest.assets()),
+            negotiationRequest.assetGroups(), prefilter);
+    try {
+      return inFlightNegotiations.execute(key, () -> runNegotiation(negotiationRequest, timeout, prefilter), () -> {
+        monitor.debug("Joining running negotiation with " + negotiationRequest.dataSource().getName());
+        coalescedNegotiations.increment();
+      });
+    } catch (Deadline.DeadlineExceededException e) {
+      monitor.warning("Stopped waiting for running negotiation: " + e.getMessage());
+      return NegotiationOutcome.of("{\"error\":\"" + e.getMessage() + "\"}");
+    }
+  }
+
+  /**
+   * Identifies negotiations that lead to the same result, asset order aside.
+   */
+  private record NegotiationKey(String dataSource, String dataSink, Set<String> assets, List<List<String>> assetGroups,
+                                boolean prefilter) {
+  }
+
+  /**
+   * Result of a negotiation: the body /negotiate returns and, if the counterparty answered with
+   * an error, its status and Retry-After header.
+   */
+  private record NegotiationOutcome(int status, String retryAfter, String body) {
 
+    static NegotiationOutcome of(String body) {
+      return new NegotiationOutcome(Response.Status.OK.getStatusCode(), null, body);
+    }
+  }
+
+  private NegotiationOutcome runNegotiation(NegotiationRequest negotiationRequest, Duration timeout, boolean prefilter) {
+    try {
+      monitor.info("Initiating trustee negotiation");
+      negotiationStarted("initiator");
       Participant dataSource = negotiationRequest.dataSource();
       Participant dataSink   = negotiationRequest.dataSink();
       if (dataSource == null || dataSink == null ||
               dataSource.getUrl() == null || dataSink.getUrl() == null) {
-        return "{\"error\":\"dataSource / dataSink missing in request\"}";
+        negotiationFinished("initiator", "failed");
+        return NegotiationOutcome.of("{\"error\":\"dataSource / dataSink missing in request\"}");
+      }
+
+      // Get the list of trusted participants from whitelist
+      List<Participant> trustedDataTrustees = trustedList.getTrustedParticipants();
+      if (prefilter) {
+        HttpResponse<String> preNegotiation = preNegotiate(dataSource, dataSink, timeout);
+        List<Participant> candidates = null;
+        if (preNegotiation.statusCode() == Response.Status.NOT_FOUND.getStatusCode()) {
+          monitor.info("Counterparty does not support pre-negotiation, sending the full whitelist");
+        } else if (preNegotiation.statusCode() >= 400) {
+          negotiationFinished("initiator", "failed");
+          return counterpartyError(preNegotiation);
+        } else {
+          candidates = objectMapper.readValue(preNegotiation.body(), PreNegotiationResponse.class).candidates();
+        }
+        if (candidates != null) {
+          // only the candidates both parties trust are sent in full
+          trustedDataTrustees = trustedList.matchTrustedParticipants(candidates);
+          if (trustedDataTrustees.isEmpty()) {
+            monitor.warning("No commonly trusted data trustee found");
+            negotiationFinished("initiator", "no_match");
+            return NegotiationOutcome.of("{\"message\":\"No commonly trusted data trustee found\"}");
+          }
+        }
       }
+      if (deadlineExceeded("hash")) {
+        negotiationFinished("initiator", "deadline_exceeded");
+        return NegotiationOutcome.of("{\"error\":\"Deadline exceeded before the negotiation request was sent\"}");
+      }
+      // Compute the hash of the trusted participants
+      long hashStart = System.nanoTime();
+      String hash = HashUtil.computeHash(trustedDataTrustees);
+      hashComputeTime.recordSince(hashStart);
 
       List<String> assets = negotiationRequest.assets();
 
@@ -172,104 +489,284 @@ public class TrustedParticipantsWhitelistApiController {
               dataSink,
               trustedDataTrustees,
               assets,
-              hash);
+              hash,
+              negotiationRequest.assetGroups());
 
       String receiveNegotiationEndpoint = dataSource.getUrl() + "/receive-negotiation";
-      HttpRequest request = HttpRequest.newBuilder()
+      HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
               .uri(URI.create(receiveNegotiationEndpoint))
               .header("Content-Type", "application/json")
-              .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(negotiationRequest)))
-              .build();
+              .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(negotiationRequest)));
+      if (timeout != null) {
+        requestBuilder.timeout(timeout);
+      }
+      HttpRequest request = requestBuilder.build();
 
       // Send the request and get the response
-      HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+      HttpResponse<String> response = peerClient.send("receive-negotiation", request);
       monitor.info(
               "Received Response from Provider: Status Code = " + response.statusCode() + ", Body = " + response.body());
 
+      if (response.statusCode() >= 400) {
+        // the counterparty refused or failed, pass its answer on instead of a result
+        negotiationFinished("initiator", "failed");
+        return counterpartyError(response);
+      }
+      JsonNode body = objectMapper.readTree(response.body());
+      if (body == null || !body.isObject()) {
+        negotiationFinished("initiator", "failed");
+        monitor.warning("Counterparty answered the negotiation with something other than a JSON object");
+        return new NegotiationOutcome(Response.Status.BAD_GATEWAY.getStatusCode(), null,
+                "{\"error\":\"Counterparty answered with an invalid negotiation response\"}");
+      }
+
       // Deserialize negotiation response
-      NegotiationResponse negotiationResponse = objectMapper.readValue(response.body(), NegotiationResponse.class);
+      NegotiationResponse negotiationResponse = objectMapper.treeToValue(body, NegotiationResponse.class);
 
-      this.negotiationResponse = negotiationResponse;
+      String negotiationId = UUID.randomUUID().toString();
+      negotiationResults.put(negotiationId, negotiationResponse);
+      latestNegotiationId = negotiationId;
 
       // Check if a trusted data trustee was selected
       Participant chosenDataTrustee = negotiationResponse.trustedDataTrustee();
       if(chosenDataTrustee == null || chosenDataTrustee.getUrl() == null || chosenDataTrustee.getUrl().isEmpty()){
         monitor.warning("No commonly trusted data trustee found");
-        return "{\"message\":\"No commonly trusted data trustee found\"}";
+        negotiationFinished("initiator", "no_match");
+        return NegotiationOutcome.of("{\"negotiationId\":\"" + negotiationId + "\",\"message\":\"No commonly trusted data trustee found\"}");
       }
-      // Prepare the notification request
-      String notificationUrl = chosenDataTrustee.getUrl() + "/notify";
-      DataTrusteeRequest dataTrusteeRequest = new DataTrusteeRequest(
-              negotiationResponse.dataSource(),
-              negotiationResponse.dataSink(),
-              negotiationResponse.assets(),
-              "consumer");
-      String notificationBody = objectMapper.writeValueAsString(dataTrusteeRequest);
-
-      // Send the notification
-      HttpRequest notificationRequest = HttpRequest.newBuilder()
-              .uri(URI.create(notificationUrl))
-              .header("Content-Type", "application/json")
-              .POST(HttpRequest.BodyPublishers.ofString(notificationBody))
-              .build();
+      // Send the notification in the background, the negotiation result does not depend on it
+      notifyTrustee(candidates(negotiationResponse), negotiationResponse.dataSource(),
+              negotiationResponse.dataSink(), negotiationResponse.assets(), negotiationRequest.assetGroups(), "consumer", timeout);
 
-      HttpResponse<String> notificationResponse = httpClient.send(notificationRequest, HttpResponse.BodyHandlers.ofString());
-      monitor.info("Notification sent to " + chosenDataTrustee.getName() + "; Response: " + notificationResponse.body());
-
-      return response.body();
+      negotiationFinished("initiator", "succeeded");
+      ((ObjectNode) body).put("negotiationId", negotiationId);
+      return NegotiationOutcome.of(objectMapper.writeValueAsString(body));
+    } catch (Deadline.DeadlineExceededException e) {
+      negotiationFinished("initiator", "deadline_exceeded");
+      monitor.warning("Dropped negotiation: " + e.getMessage());
+      return NegotiationOutcome.of("{\"error\":\"" + e.getMessage() + "\"}");
     } catch (Exception e) {
+      negotiationFinished("initiator", "failed");
       monitor.severe("Failed to initiate negotiation with provider-connector", e);
-      return "{\"error\":\"Failed to send negotiation request: " + e.getMessage() + "\"}";
+      return NegotiationOutcome.of("{\"error\":\"Failed to send negotiation request: " + e.getMessage() + "\"}");
     }
   }
 
+  private NegotiationOutcome counterpartyError(HttpResponse<String> response) {
+    int status = response.statusCode();
+    monitor.warning("Counterparty answered the negotiation with status " + status);
+    String retryAfter = response.headers().firstValue(RETRY_AFTER).orElse(null);
+    ObjectNode error = objectMapper.createObjectNode()
+            .put("error", "Counterparty answered with status " + status)
+            .put("status", status);
+    if (retryAfter != null) {
+      error.put("retryAfter", retryAfter);
+    }
+    return new NegotiationOutcome(status, retryAfter, error.toString());
+  }
 
   /**
-   * Receives a negotiation request from another participant, matches trusted
-   * participants, and chooses one for data transfer.
+   * Sends a Bloom filter of the whitelist to the counterparty.
+   *
+   * @return the answer of the counterparty, 404 if it does not support pre-negotiation.
+   */
+  private HttpResponse<String> preNegotiate(Participant dataSource, Participant dataSink, Duration timeout)
+          throws IOException, InterruptedException {
+    BloomFilter filter = trustedList.filterTrustedParticipants(PREFILTER_FALSE_POSITIVE_RATE);
+    HttpRequest.Builder request = HttpRequest.newBuilder()
+            .uri(URI.create(dataSource.getUrl() + "/receive-pre-negotiation"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                    new PreNegotiationRequest(dataSource, dataSink, filter.getBits(), filter.getHashes()))));
+    if (timeout != null) {
+      request.timeout(timeout);
+    }
+    return peerClient.send("receive-pre-negotiation", request.build());
+  }
+
+  public Response receivePreNegotiation(PreNegotiationRequest preNegotiationRequest) {
+    return tracer.inSpan("receive-pre-negotiation", null, () -> matchPreNegotiation(preNegotiationRequest));
+  }
+
+  /**
+   * Answers the first round of a pre-filtered negotiation with the trusted participants that
+   * may also be trusted by the initiator. The initiator confirms them with a regular negotiation.
+   * Like a negotiation, the request is counted against the rate limit of the initiator before
+   * it is read, and dropped once its deadline has passed.
+   *
+   * @param body    The pre-negotiation request of the initiator.
+   * @param context Trace context and deadline of the initiator, and the client the rate limit
+   *                is applied to.
+   */
+  @POST
+  @Path("receive-pre-negotiation")
+  public Response receivePreNegotiation(InputStream body, @BeanParam RequestContext context) {
+    return Deadline.within(Deadline.parse(context.deadline(), defaultDeadline),
+            () -> tracer.inSpan("receive-pre-negotiation", context.traceparent(), () -> {
+      if (deadlineExceeded("match")) {
+        return deadlineExceededResponse("match");
+      }
+      String client = context.client();
+      Duration wait = rateLimit(client, 1);
+      if (!wait.isZero()) {
+        return tooManyRequests("receive-pre-negotiation", "rate_limited", wait, "Too many negotiations of " + client);
+      }
+      PreNegotiationRequest preNegotiationRequest;
+      try {
+        preNegotiationRequest = objectMapper.readValue(body, PreNegotiationRequest.class);
+      } catch (IOException e) {
+        monitor.warning("Failed to read pre-negotiation request: " + e.getMessage());
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"Invalid pre-negotiation request\"}")
+                .build();
+      }
+      return matchPreNegotiation(preNegotiationRequest);
+    }));
+  }
+
+  private Response matchPreNegotiation(PreNegotiationRequest preNegotiationRequest) {
+    BloomFilter filter;
+    try {
+      if (preNegotiationRequest.filter() == null || preNegotiationRequest.filter().length() > MAX_PREFILTER_LENGTH) {
+        throw new IllegalArgumentException("Filter must be given and at most " + MAX_PREFILTER_LENGTH + " characters long");
+      }
+      filter = BloomFilter.decode(preNegotiationRequest.filter(), preNegotiationRequest.filterHashes());
+    } catch (IllegalArgumentException e) {
+      return Response.status(Response.Status.BAD_REQUEST)
+              .entity("{\"error\":\"" + e.getMessage() + "\"}")
+              .build();
+    }
+    List<Participant> candidates = trustedList.matchTrustedParticipants(filter);
+    monitor.debug("Pre-negotiation found " + candidates.size() + " candidates");
+    return Response.ok(new PreNegotiationResponse(candidates)).build();
+  }
+
+  /**
+   * Receives a negotiation request that was already read, see
+   * {@link #receiveNegotiation(InputStream, RequestContext)}.
    *
    * @param negotiationRequest The list of trusted participants from the
    *                           negotiation initiator.
    * @return A response with matched participants and the chosen participant.
    */
+  public String receiveNegotiation(NegotiationRequest negotiationRequest) {
+    return tracer.inSpan("receive-negotiation", null, () -> respondToNegotiation(negotiationRequest));
+  }
+
+  /**
+   * Receives a negotiation request from another participant, matches trusted
+   * participants, and chooses one for data transfer. The trusted participants are
+   * hashed and matched while the request is read, and a request with more of them
+   * than allowed is rejected as soon as the limit is exceeded. The rate limit of the
+   * initiator is applied before the request is read, so a throttled initiator costs no parsing.
+   *
+   * @param body    The negotiation request of the initiator.
+   * @param context Trace context and deadline of the initiator, and the client the rate limit
+   *                is applied to.
+   * @return A response with matched participants and the chosen participant.
+   */
   @POST
   @Path("receive-negotiation")
-  public String receiveNegotiation(NegotiationRequest negotiationRequest) {
+  public Response receiveNegotiation(InputStream body, @BeanParam RequestContext context) {
+    return Deadline.within(Deadline.parse(context.deadline(), defaultDeadline),
+            () -> tracer.inSpan("receive-negotiation", context.traceparent(), () -> {
+      monitor.info("Received negotiation request");
+      negotiationStarted("responder");
+      if (deadlineExceeded("match")) {
+        negotiationFinished("responder", "deadline_exceeded");
+        return deadlineExceededResponse("match");
+      }
+      String client = context.client();
+      Duration wait = rateLimit(client, 1);
+      if (!wait.isZero()) {
+        negotiationFinished("responder", "rejected");
+        return tooManyRequests("receive-negotiation", "rate_limited", wait, "Too many negotiations of " + client);
+      }
+      if (negotiationPermits != null && !negotiationPermits.tryAcquire()) {
+        negotiationFinished("responder", "rejected");
+        return tooManyRequests("receive-negotiation", "concurrency", Duration.ofSeconds(1),
+                "Too many negotiations in progress");
+      }
+      try {
+        return readNegotiation(body);
+      } finally {
+        if (negotiationPermits != null) {
+          negotiationPermits.release();
+        }
+      }
+    }));
+  }
+
+  private Response readNegotiation(InputStream body) {
+    NegotiationRequestReader.Result read;
+    long readStart = System.nanoTime();
+    try {
+      read = negotiationRequestReader.read(body, trustedList.snapshot());
+    } catch (NegotiationRequestReader.TooManyTrusteesException e) {
+      monitor.warning("Rejected negotiation request: " + e.getMessage());
+      negotiationFinished("responder", "rejected");
+      return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+              .entity("{\"error\":\"" + e.getMessage() + "\"}")
+              .build();
+    } catch (IOException | NoSuchAlgorithmException e) {
+      monitor.warning("Failed to read negotiation request: " + e.getMessage());
+      negotiationFinished("responder", "failed");
+      return Response.status(Response.Status.BAD_REQUEST)
+              .entity("{\"error\":\"Invalid negotiation request\"}")
+              .build();
+    }
+    negotiationParseTime.recordSince(readStart);
+    if (deadlineExceeded("notify")) {
+      negotiationFinished("responder", "deadline_exceeded");
+      return deadlineExceededResponse("notify");
+    }
+    return Response.ok(respondToNegotiation(read.request(), read.hash(), read.matches())).build();
+  }
+
+  private String respondToNegotiation(NegotiationRequest negotiationRequest) {
     monitor.info("Received negotiation request");
+    negotiationStarted("responder");
+    String computedHash;
     try {
-      String receivedHash = negotiationRequest.hash();
-      List<Participant> participants = negotiationRequest.trustedDataTrustees();
-      String computedHash = HashUtil.computeHash(participants);
-      if (!computedHash.equals(receivedHash)) {
-        monitor.warning("Hash mismatch: possible data tampering detected.");
-        return "{\"error\":\"Hash mismatch: possible data tampering detected.\"}";
-      }
+      long hashStart = System.nanoTime();
+      computedHash = HashUtil.computeHash(negotiationRequest.trustedDataTrustees());
+      hashVerifyTime.recordSince(hashStart);
     } catch (NoSuchAlgorithmException e) {
       monitor.warning("Failed to compute hash: " + e.getMessage());
+      negotiationFinished("responder", "failed");
       return "{\"error\":\"Failed to compute hash: " + e.getMessage() + "\"}";
     }
+    return respondToNegotiation(negotiationRequest, computedHash,
+            trustedList.matchTrustedParticipants(negotiationRequest.trustedDataTrustees()));
+  }
+
+  /**
+   * @param computedHash The hash of the trusted participants the initiator sent.
+   * @param matches      The trusted participants of both parties, in whitelist order.
+   */
+  private String respondToNegotiation(NegotiationRequest negotiationRequest, String computedHash, List<Participant> matches) {
+    if (!computedHash.equals(negotiationRequest.hash())) {
+      monitor.warning("Hash mismatch: possible data tampering detected.");
+      negotiationFinished("responder", "hash_mismatch");
+      return "{\"error\":\"Hash mismatch: possible data tampering detected.\"}";
+    }
 
-    List<Participant> matches = trustedList.getTrustedParticipants().stream()
-            .filter(p -> negotiationRequest.trustedDataTrustees().stream()
-                    .anyMatch(nrp -> p.getName().equals(nrp.getName()) && p.getUrl().equals(nrp.getUrl())))
+    // Rank the matched participants that are not known to be down, the first one is chosen
+    List<Participant> candidates = matches.stream()
+            .filter(trustee -> !circuitBreakers.isOpen(trustee.getUrl()))
+            .limit(MAX_TRUSTEE_CANDIDATES)
             .toList();
-    // Select the first matched participant
-    Participant chosenDataTrustee = matches.isEmpty() ? null : matches.get(0);
+    Participant chosenDataTrustee = candidates.isEmpty() ? null : candidates.get(0);
+    if (chosenDataTrustee == null && !matches.isEmpty()) {
+      monitor.warning("All " + matches.size() + " commonly trusted data trustees are unreachable");
+      negotiationFinished("responder", "unreachable");
+      return "{\"trustedDataTrustee\":[], \"message\":\"No reachable commonly trusted data trustee found\"}";
+    }
     if (chosenDataTrustee != null) {
       try {
-        String trusteeNotificationUrl = chosenDataTrustee.getUrl() + "/notify";
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(
-                        trusteeNotificationUrl))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(new DataTrusteeRequest(
-                        negotiationRequest.dataSource(),
-                        negotiationRequest.dataSink(),
-                        negotiationRequest.assets(),
-                        "provider"))))
-                .build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        monitor.info("Notification sent to " + chosenDataTrustee.getName() + "; Response: " + response.body());
+        // sent in the background, so the initiator gets the chosen trustee without waiting for it
+        notifyTrustee(candidates, negotiationRequest.dataSource(),
+                negotiationRequest.dataSink(), negotiationRequest.assets(), negotiationRequest.assetGroups(), "provider", null);
       } catch (Exception e) {
         monitor.warning("Failed to send notification to " + chosenDataTrustee.getName() + ": " + e.getMessage());
       }
@@ -277,54 +774,312 @@ public class TrustedParticipantsWhitelistApiController {
               negotiationRequest.dataSource(),
               negotiationRequest.dataSink(),
               chosenDataTrustee,
-              negotiationRequest.assets());
+              negotiationRequest.assets(),
+              candidates);
       try {
         // Serialize the negotiation response to JSON
         String responseBody = objectMapper.writeValueAsString(negotiationResponse);
+        negotiationFinished("responder", "succeeded");
         return responseBody;
       } catch (Exception e) {
         monitor.warning("Failed to serialize negotiation response: " + e.getMessage());
+        negotiationFinished("responder", "failed");
         return "{\"error\":\"Failed to serialize negotiation response: " + e.getMessage() + "\"}";
       }
     } else {
+      negotiationFinished("responder", "no_match");
       return "{\"trustedDataTrustee\":[], \"message\":\"No commonly trusted data trustee found\"}";
     }
   }
 
+  /**
+   * @return the chosen trustee of the response followed by the other ranked candidates this
+   *         connector trusts, in the failover order of the counterparty.
+   */
+  private List<Participant> candidates(NegotiationResponse negotiationResponse) {
+    List<Participant> candidates = new ArrayList<>();
+    candidates.add(negotiationResponse.trustedDataTrustee());
+    if (negotiationResponse.trusteeCandidates() != null) {
+      TrustedParticipantsWhitelist.Snapshot whitelist = trustedList.snapshot();
+      negotiationResponse.trusteeCandidates().stream()
+              .filter(candidate -> !candidates.contains(candidate) && whitelist.indexOf(candidate) >= 0)
+              .limit(MAX_TRUSTEE_CANDIDATES - 1)
+              .forEach(candidates::add);
+    }
+    return candidates;
+  }
+
+  /**
+   * Notifies the first of the ranked trustees of the exchange, or of one exchange per asset
+   * group in a single /notify-batch call if the assets were negotiated in groups. The
+   * notification is delivered in the background through the outbox with an idempotency key,
+   * so its retries are not queued twice. If the trustee cannot be reached (connection errors,
+   * an open circuit or 5xx after all retries), the next trustee is notified instead; the
+   * counterparty fails over in the same order, so both sides end up at the same trustee. A
+   * trustee that answers otherwise, including 429, is not skipped: it is up and gets the
+   * notification of the counterparty too.
+   */
+  private void notifyTrustee(List<Participant> trustees, Participant dataSource, Participant dataSink,
+                             List<String> assets, List<List<String>> assetGroups, String senderType,
+                             Duration timeout) throws JsonProcessingException {
+    String hop;
+    Object body;
+    if (assetGroups == null || assetGroups.isEmpty()) {
+      hop = "notify";
+      body = new DataTrusteeRequest(dataSource, dataSink, assets, senderType, UUID.randomUUID().toString());
+    } else {
+      hop = "notify-batch";
+      body = assetGroups.stream()
+              .map(group -> new DataTrusteeRequest(dataSource, dataSink, group, senderType, UUID.randomUUID().toString()))
+              .toList();
+    }
+    notifyTrustee(trustees, 0, hop, objectMapper.writeValueAsString(body), senderType, timeout, Deadline.current());
+  }
+
+  /**
+   * @param deadline The deadline of the negotiation, kept on the request so retries and
+   *                 failovers in the background are dropped once it has passed.
+   */
+  private void notifyTrustee(List<Participant> trustees, int index, String hop, String body, String senderType, Duration timeout,
+                             Deadline deadline) {
+    Participant trustee = trustees.get(index);
+    HttpRequest.Builder request = HttpRequest.newBuilder()
+            .uri(URI.create(trustee.getUrl() + "/" + hop))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+    if (timeout != null) {
+      request.timeout(timeout);
+    }
+    if (deadline != null) {
+      request.header(Deadline.HEADER, deadline.header());
+    }
+    notificationOutbox.send(hop, request.build()).whenComplete((response, error) -> {
+      if (error == null && response.statusCode() < 400) {
+        monitor.info("Notification sent to " + trustee.getName() + "; Response: " + response.body());
+        return;
+      }
+      String failure = error != null ? error.getMessage() : "status " + response.statusCode() + ", " + response.body();
+      // only a trustee that cannot be reached is skipped, one that answered is up for the counterparty as well
+      boolean unreachable = error != null ? !(error instanceof Deadline.DeadlineExceededException) : response.statusCode() >= 500;
+      if (!unreachable || index + 1 >= trustees.size()) {
+        monitor.warning("Failed to send notification to " + trustee.getName() + ": " + failure);
+        return;
+      }
+      Participant next = trustees.get(index + 1);
+      monitor.warning("Failed to send notification to " + trustee.getName() + ", failing over to " + next.getName() + ": " + failure);
+      metrics.counter("trustee_notification_failovers_total", "Notifications sent to the next ranked trustee after a failed delivery.",
+              "role", senderType).increment();
+      notifyTrustee(trustees, index + 1, hop, body, senderType, timeout, deadline);
+    });
+  }
+
+  private void negotiationStarted(String role) {
+    metrics.counter("trustee_negotiations_started_total", "Trustee negotiations started.", "role", role).increment();
+  }
+
+  private void negotiationFinished(String role, String outcome) {
+    metrics.counter("trustee_negotiations_finished_total", "Trustee negotiations finished, by outcome.", "role", role, "outcome", outcome)
+            .increment();
+  }
+
+  /**
+   * Takes permits from the token bucket of the client, as identified by {@link RequestContext#client()}.
+   *
+   * @return zero if the request is admitted, otherwise the time until it would be.
+   */
+  private Duration rateLimit(String client, int permits) {
+    if (participantRates == null || client == null) {
+      return Duration.ZERO;
+    }
+    return participantRates.tryAcquire(client, permits);
+  }
+
+  private Response tooManyRequests(String endpoint, String reason, Duration retryAfter, String message) {
+    metrics.counter("trustee_requests_rejected_total", "Requests rejected to protect the trustee from overload.",
+            "endpoint", endpoint, "reason", reason).increment();
+    monitor.warning("Rejected " + endpoint + " request (" + reason + "): " + message);
+    long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    return Response.status(Response.Status.TOO_MANY_REQUESTS)
+            .header(RETRY_AFTER, seconds)
+            .entity("{\"error\":\"" + message + "\"}")
+            .build();
+  }
+
+  private Response tooManyStreams(String endpoint) {
+    metrics.counter("trustee_requests_rejected_total", "Requests rejected to protect the trustee from overload.",
+            "endpoint", endpoint, "reason", "streams").increment();
+    monitor.warning("Rejected " + endpoint + " stream: " + MAX_OPEN_STREAMS + " streams are open");
+    return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+            .header(RETRY_AFTER, 1)
+            .entity("{\"error\":\"Too many open streams, at most " + MAX_OPEN_STREAMS + "\"}")
+            .type(MediaType.APPLICATION_JSON)
+            .build();
+  }
+
+  /**
+   * @return true if the deadline of the current request has passed, so the step is skipped.
+   */
+  private boolean deadlineExceeded(String step) {
+    if (!Deadline.isCurrentExpired()) {
+      return false;
+    }
+    metrics.counter(PeerClient.DEADLINE_EXCEEDED, "Work dropped because the deadline of its request had passed.", "step", step)
+            .increment();
+    monitor.warning("Deadline " + Deadline.current() + " passed, dropping request before " + step);
+    return true;
+  }
+
+  private static Response deadlineExceededResponse(String step) {
+    // a 4xx, so the sender neither retries nor fails over nor counts it against the circuit of this connector
+    return Response.status(Response.Status.REQUEST_TIMEOUT)
+            .entity("{\"error\":\"Deadline exceeded before " + step + "\"}")
+            .build();
+  }
+
+  public Response receiveNotification(DataTrusteeRequest request) {
+    return receiveNotification(request, null, new RequestContext());
+  }
+
+  /**
+   * Queues the notification of a provider or consumer. A notification retried with the
+   * idempotency key of an earlier one, given in the body or the Idempotency-Key header,
+   * returns the entry of the earlier notification without queueing it again. A notification
+   * whose deadline has passed is dropped before it is queued.
+   */
   @POST
   @Path("notify")
-  public Response receiveNotification(DataTrusteeRequest request) {
+  public Response receiveNotification(DataTrusteeRequest request, @HeaderParam(IDEMPOTENCY_KEY_HEADER) String idempotencyKey,
+                                      @BeanParam RequestContext context) {
+    return Deadline.within(Deadline.parse(context.deadline(), defaultDeadline), () -> tracer.inSpan("notify", context.traceparent(),
+            () -> queueNotification(request, request.idempotencyKey() != null ? request.idempotencyKey() : idempotencyKey,
+                    context.client())));
+  }
+
+  private Response queueNotification(DataTrusteeRequest request, String idempotencyKey, String client) {
     monitor.info("Received notification: " + request);
-    String entryId;
+    if (deadlineExceeded("queue")) {
+      return deadlineExceededResponse("queue");
+    }
+    NotificationResult result;
 
     // Determine the sender type from the request
     String senderType = request.senderType(); // "provider" or "consumer"
 
-    if ("provider".equalsIgnoreCase(senderType)) {
-      entryId = queueManager.addProviderNotification(request.dataSource(), request.assets());
-    } else if ("consumer".equalsIgnoreCase(senderType)) {
-      entryId = queueManager.addConsumerNotification(request.dataSink(), request.assets());
+    Duration wait = rateLimit(client, 1);
+    if (!wait.isZero()) {
+      return tooManyRequests("notify", "rate_limited", wait, "Too many notifications of " + client);
+    }
+    try {
+      if ("provider".equalsIgnoreCase(senderType)) {
+        result = queueManager.addProviderNotification(request.dataSource(), request.assets(), idempotencyKey);
+      } else if ("consumer".equalsIgnoreCase(senderType)) {
+        result = queueManager.addConsumerNotification(request.dataSink(), request.assets(), idempotencyKey);
+      } else {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\":\"Invalid sender type\"}")
+                .build();
+      }
+    } catch (DataExchangeQueueManager.QueueFullException e) {
+      return tooManyRequests("notify", "queue_full", e.getRetryAfter(), e.getMessage());
+    }
+    metrics.counter("trustee_notifications_received_total", "Notifications received by the trustee.", "sender", senderType.toLowerCase())
+            .increment();
+
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Notification received");
+    response.put("entryId", result.entryId());
+    if (result.duplicate()) {
+      // the first notification already triggered the processing of its entry
+      response.put("duplicate", true);
     } else {
+      queueManager.processEntries(List.of(request.assets()));
+    }
+
+    return Response.ok(response).build();
+  }
+
+  public Response receiveNotifications(List<DataTrusteeRequest> requests) {
+    return receiveNotifications(requests, new RequestContext());
+  }
+
+  /**
+   * Queues a batch of notifications, e.g. one per asset group of a negotiation. Each
+   * notification is paired with the queue like a single one, and the queue is processed once
+   * afterwards.
+   *
+   * @return the entry ids in the order of the notifications.
+   */
+  @POST
+  @Path("notify-batch")
+  public Response receiveNotifications(List<DataTrusteeRequest> requests, @BeanParam RequestContext context) {
+    return Deadline.within(Deadline.parse(context.deadline(), defaultDeadline),
+            () -> tracer.inSpan("notify-batch", context.traceparent(), () -> queueNotifications(requests, context.client())));
+  }
+
+  private Response queueNotifications(List<DataTrusteeRequest> requests, String client) {
+    if (requests == null || requests.isEmpty() || requests.size() > MAX_NOTIFY_BATCH) {
       return Response.status(Response.Status.BAD_REQUEST)
-              .entity("{\"error\":\"Invalid sender type\"}")
+              .entity("{\"error\":\"A batch must contain 1 to " + MAX_NOTIFY_BATCH + " notifications\"}")
               .build();
     }
+    monitor.info("Received batch of " + requests.size() + " notifications");
+    if (deadlineExceeded("queue")) {
+      return deadlineExceededResponse("queue");
+    }
+    Duration wait = rateLimit(client, requests.size());
+    if (!wait.isZero()) {
+      return tooManyRequests("notify-batch", "rate_limited", wait, "Too many notifications of " + client);
+    }
+    List<NotificationResult> results;
+    try {
+      results = queueManager.addNotifications(requests);
+    } catch (DataExchangeQueueManager.QueueFullException e) {
+      // the notifications added before the queue filled up are found again by their idempotency keys on retry
+      return tooManyRequests("notify-batch", "queue_full", e.getRetryAfter(), e.getMessage());
+    } catch (IllegalArgumentException e) {
+      return Response.status(Response.Status.BAD_REQUEST)
+              .entity("{\"error\":\"" + e.getMessage() + "\"}")
+              .build();
+    }
+    for (DataTrusteeRequest request : requests) {
+      metrics.counter("trustee_notifications_received_total", "Notifications received by the trustee.", "sender", request.senderType().toLowerCase())
+              .increment();
+    }
 
-    queueManager.processEntries();
-    Map<String, String> response = new HashMap<>();
-    response.put("message", "Notification received");
-    response.put("entryId", entryId);
-
+    List<String> entryIds = new ArrayList<>(results.size());
+    List<Integer> duplicates = new ArrayList<>();
+    for (int i = 0; i < results.size(); i++) {
+      entryIds.add(results.get(i).entryId());
+      if (results.get(i).duplicate()) {
+        duplicates.add(i);
+      }
+    }
+    if (duplicates.size() < results.size()) {
+      queueManager.processEntries(requests.stream().map(DataTrusteeRequest::assets).toList());
+    }
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Notifications received");
+    response.put("entryIds", entryIds);
+    if (!duplicates.isEmpty()) {
+      response.put("duplicates", duplicates);
+    }
     return Response.ok(response).build();
   }
 
+  public Response receiveNotificationCompletion(Map<String, String> notification) {
+    return receiveNotificationCompletion(notification, null);
+  }
+
   @POST
   @Path("notify-completion")
-  public Response receiveNotificationCompletion(Map<String, String> notification) {
-    String message = notification.get("message");
-    String role = notification.get("role");
-    monitor.info("Received completion notification for role: " + role + ". Message: " + message);
-    return Response.ok("{\"message\":\"Completion notification received.\"}").build();
+  public Response receiveNotificationCompletion(Map<String, String> notification,
+                                                @HeaderParam(Tracer.TRACEPARENT) String traceparent) {
+    return tracer.inSpan("notify-completion", traceparent, () -> {
+      String message = notification.get("message");
+      String role = notification.get("role");
+      monitor.info("Received completion notification for role: " + role + ". Message: " + message);
+      return Response.ok("{\"message\":\"Completion notification received.\"}").build();
+    });
   }
 
   /**
@@ -332,12 +1087,29 @@ public class TrustedParticipantsWhitelistApiController {
    *
    * @param entryId  The ID of the data exchange entry.
    * @param newState The new state to set ("IN_PROGRESS" or "COMPLETED").
+   * @param traceparent W3C trace context of the caller, continued by the completion notifications.
+   * @param deadline    Unix epoch milliseconds, sent along with the completion notifications.
    * @return A response indicating the outcome.
    */
   @POST
   @Path("update-entry-state")
   public Response updateDataExchangeEntryState(@QueryParam("entryId") String entryId,
-                                               @QueryParam("newState") String newState) {
+                                               @QueryParam("newState") String newState,
+                                               @HeaderParam(Tracer.TRACEPARENT) String traceparent,
+                                               @HeaderParam(Deadline.HEADER) String deadline) {
+    return Deadline.within(Deadline.parse(deadline, defaultDeadline),
+            () -> tracer.inSpan("update-entry-state", traceparent, () -> updateEntryState(entryId, newState)));
+  }
+
+  public Response updateDataExchangeEntryState(String entryId, String newState, String traceparent) {
+    return updateDataExchangeEntryState(entryId, newState, traceparent, null);
+  }
+
+  public Response updateDataExchangeEntryState(String entryId, String newState) {
+    return updateDataExchangeEntryState(entryId, newState, null);
+  }
+
+  private Response updateEntryState(String entryId, String newState) {
     monitor.info("Received request to update state of entry " + entryId + " to " + newState);
     DataExchangeState state;
     try {
@@ -363,47 +1135,253 @@ public class TrustedParticipantsWhitelistApiController {
     }
   }
 
+  public Response getDataExchangeEntries() {
+    return getDataExchangeEntries(null, null, null, null, null, null);
+  }
+
+  /**
+   * Retrieves the current DataExchangeEntries, ordered by creation time.
+   *
+   * @param states      Comma-separated states the entries must be in.
+   * @param participant Id or name of the provider or consumer of the entries.
+   * @param from        Only entries created at or after this ISO-8601 local date-time.
+   * @param to          Only entries created before this ISO-8601 local date-time.
+   * @param cursor      Cursor of the previous page, returned in the X-Next-Cursor header.
+   * @param limit       Maximum number of entries per page, 1 to 1000, 100 by default.
+   * @return The entries; the X-Next-Cursor header is set if more entries follow.
+   */
   @GET
   @Path("data-exchange-entries")
-  public Response getDataExchangeEntries() {
-    monitor.info("Retrieving current DataExchangeEntries");
-    List<DataExchangeEntry> entries = queueManager.getEntries();
+  public Response getDataExchangeEntries(@QueryParam("state") String states,
+                                         @QueryParam("participant") String participant,
+                                         @QueryParam("from") String from,
+                                         @QueryParam("to") String to,
+                                         @QueryParam("cursor") String cursor,
+                                         @QueryParam("limit") Integer limit) {
+    monitor.debug("Retrieving current DataExchangeEntries");
+    int pageSize = limit == null ? DEFAULT_ENTRIES_PAGE : limit;
+    if (pageSize <= 0 || pageSize > MAX_ENTRIES_PAGE) {
+      return Response.status(Response.Status.BAD_REQUEST)
+              .entity("{\"error\":\"limit must be between 1 and " + MAX_ENTRIES_PAGE + "\"}")
+              .build();
+    }
+    DataExchangeEntryQuery query;
+    try {
+      query = new DataExchangeEntryQuery(
+              states == null ? null : Stream.of(states.split(",")).map(String::trim).map(DataExchangeState::valueOf).collect(Collectors.toSet()),
+              participant,
+              from == null ? null : LocalDateTime.parse(from),
+              to == null ? null : LocalDateTime.parse(to),
+              cursor == null ? null : DataExchangeEntryQuery.Position.parse(cursor),
+              // one more than the page, to know whether another page follows
+              pageSize + 1);
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      return Response.status(Response.Status.BAD_REQUEST)
+              .entity("{\"error\":\"Invalid entry filter: " + e.getMessage() + "\"}")
+              .build();
+    }
+
+    List<DataExchangeEntry> entries = queueManager.getEntries(query);
+    List<DataExchangeEntryView> page = entries.stream().limit(pageSize).map(DataExchangeEntryView::of).toList();
+    Response.ResponseBuilder response = Response.ok(page);
+    if (entries.size() > pageSize) {
+      DataExchangeEntryView last = page.get(page.size() - 1);
+      response.header(NEXT_CURSOR_HEADER, new DataExchangeEntryQuery.Position(last.createdAt(), last.id()).cursor());
+    }
+    return response.build();
+  }
 
-    // Create a response object that contains entry information
-    List<Map<String, Object>> responseEntries = entries.stream().map(entry -> {
-      Map<String, Object> entryMap = new HashMap<>();
-      entryMap.put("id", entry.getId());
-      entryMap.put("provider", entry.getProvider());
-      entryMap.put("consumer", entry.getConsumer());
-      entryMap.put("assets", entry.getAssets());
-      entryMap.put("state", entry.getState());
-      entryMap.put("createdAt", entry.getCreatedAt());
-      entryMap.put("lastUpdatedAt", entry.getLastUpdatedAt());
-      return entryMap;
-    }).collect(Collectors.toList());
+  /**
+   * Streams the state transitions of the data exchange entries as server-sent events.
+   *
+   * @param entryId     Only transitions of this entry.
+   * @param participant Only transitions of entries whose provider or consumer has this id or name.
+   * @param bufferSize  Number of events buffered for a slow client before the oldest are dropped.
+   * @param maxSeconds  Maximum duration of the stream, 1 to 300 seconds.
+   * @return The event stream, one event per transition named after the new state.
+   */
+  @GET
+  @Path("data-exchange-entries/events")
+  @Produces(MediaType.SERVER_SENT_EVENTS)
+  public Response streamEntryEvents(@QueryParam("entryId") String entryId,
+                                    @QueryParam("participant") String participant,
+                                    @QueryParam("buffer") Integer bufferSize,
+                                    @QueryParam("maxSeconds") Integer maxSeconds) {
+    int buffer = bufferSize != null ? bufferSize : EntryEventPublisher.DEFAULT_BUFFER_SIZE;
+    if (buffer <= 0 || buffer > MAX_EVENT_BUFFER) {
+      return Response.status(Response.Status.BAD_REQUEST)
+              .entity("{\"error\":\"buffer must be between 1 and " + MAX_EVENT_BUFFER + "\"}")
+              .type(MediaType.APPLICATION_JSON)
+              .build();
+    }
+    if (maxSeconds != null && (maxSeconds <= 0 || maxSeconds > MAX_STREAM_SECONDS)) {
+      return Response.status(Response.Status.BAD_REQUEST)
+              .entity("{\"error\":\"maxSeconds must be between 1 and " + MAX_STREAM_SECONDS + "\"}")
+              .type(MediaType.APPLICATION_JSON)
+              .build();
+    }
+    Predicate<EntryStateEvent> filter = event -> (entryId == null || entryId.equals(event.entryId()))
+            && (participant == null || event.concerns(participant));
+    long maxDuration = TimeUnit.SECONDS.toMillis(maxSeconds != null ? maxSeconds : MAX_STREAM_SECONDS);
+    if (!openStreams.tryAcquire()) {
+      return tooManyStreams("data-exchange-entries/events");
+    }
+    EntryEventPublisher.Subscription subscription = queueManager.getEvents().subscribe(filter, buffer);
+    return Response.ok(new EntryEventStreamingOutput(subscription, objectMapper, maxDuration, openStreams::release))
+            .type(MediaType.SERVER_SENT_EVENTS)
+            .build();
+  }
 
-    return Response.ok(responseEntries).build();
+  public Response getLogs() {
+    return getLogs(null, null, null, null, null, null, null, null);
   }
 
+  /**
+   * Retrieves the captured log entries, oldest first.
+   *
+   * @param after       Only entries with a greater sequence number, i.e. the cursor of the last read.
+   * @param level       Minimum level of the entries (DEBUG, INFO, WARNING or SEVERE).
+   * @param from        Only entries logged at or after this ISO-8601 local date-time.
+   * @param to          Only entries logged before this ISO-8601 local date-time.
+   * @param limit       Maximum number of entries returned as JSON array, at least 1.
+   * @param format      "json" (default), or "ndjson" / "sse" to keep the connection open and tail new entries.
+   * @param maxSeconds  Maximum duration of a streaming response, 1 to 300 seconds.
+   * @param lastEventId Cursor sent by reconnecting server-sent event clients.
+   * @return The entries; the X-Log-Cursor header holds the cursor to pass as "after" next time.
+   */
   @GET
   @Path("logs")
-  public Response getLogs() {
-    if (monitor instanceof InMemoryMonitor) {
-      InMemoryMonitor inMemoryMonitor = (InMemoryMonitor) monitor;
-      List<InMemoryMonitor.LogEntry> entries = inMemoryMonitor.getLogEntries();
-      return Response.ok(entries).build();
-    } else {
+  @Produces({ MediaType.APPLICATION_JSON, NDJSON, MediaType.SERVER_SENT_EVENTS })
+  public Response getLogs(@QueryParam("after") Long after,
+                          @QueryParam("level") String level,
+                          @QueryParam("from") String from,
+                          @QueryParam("to") String to,
+                          @QueryParam("limit") Integer limit,
+                          @QueryParam("format") String format,
+                          @QueryParam("maxSeconds") Integer maxSeconds,
+                          @HeaderParam("Last-Event-ID") String lastEventId) {
+    if (!(monitor instanceof InMemoryMonitor)) {
       return Response.status(Response.Status.SERVICE_UNAVAILABLE)
               .entity("{\"message\":\"Log service not available.\"}")
               .build();
     }
+    if (limit != null && limit <= 0) {
+      return Response.status(Response.Status.BAD_REQUEST)
+              .entity("{\"error\":\"limit must be positive\"}")
+              .type(MediaType.APPLICATION_JSON)
+              .build();
+    }
+    if (maxSeconds != null && (maxSeconds <= 0 || maxSeconds > MAX_STREAM_SECONDS)) {
+      return Response.status(Response.Status.BAD_REQUEST)
+              .entity("{\"error\":\"maxSeconds must be between 1 and " + MAX_STREAM_SECONDS + "\"}")
+              .type(MediaType.APPLICATION_JSON)
+              .build();
+    }
+    InMemoryMonitor inMemoryMonitor = (InMemoryMonitor) monitor;
+    Predicate<InMemoryMonitor.LogEntry> filter;
+    long cursor;
+    try {
+      cursor = after != null ? after : lastEventId != null ? Long.parseLong(lastEventId) : -1;
+      filter = logFilter(level, from, to);
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      return Response.status(Response.Status.BAD_REQUEST)
+              .entity("{\"error\":\"Invalid log filter: " + e.getMessage() + "\"}")
+              .build();
+    }
+
+    if ("ndjson".equalsIgnoreCase(format) || "sse".equalsIgnoreCase(format)) {
+      boolean sse = "sse".equalsIgnoreCase(format);
+      long maxDuration = TimeUnit.SECONDS.toMillis(maxSeconds != null ? maxSeconds : MAX_STREAM_SECONDS);
+      if (!openStreams.tryAcquire()) {
+        return tooManyStreams("logs");
+      }
+      return Response.ok(new LogStreamingOutput(inMemoryMonitor, objectMapper, filter, sse, cursor, maxDuration,
+                      openStreams::release))
+              .type(sse ? MediaType.SERVER_SENT_EVENTS : NDJSON)
+              .build();
+    }
+
+    List<InMemoryMonitor.LogEntry> entries = inMemoryMonitor.getLogEntriesAfter(cursor);
+    long nextCursor = entries.isEmpty() ? cursor : entries.get(entries.size() - 1).getSequence();
+    Stream<InMemoryMonitor.LogEntry> matching = entries.stream().filter(filter);
+    if (limit != null) {
+      List<InMemoryMonitor.LogEntry> page = matching.limit(limit).toList();
+      // with a limit the cursor points to the last returned entry, so the next page continues there
+      if (page.size() == limit) {
+        nextCursor = page.get(page.size() - 1).getSequence();
+      }
+      return Response.ok(page).header(LOG_CURSOR_HEADER, nextCursor).type(MediaType.APPLICATION_JSON).build();
+    }
+    return Response.ok(matching.toList()).header(LOG_CURSOR_HEADER, nextCursor).type(MediaType.APPLICATION_JSON).build();
+  }
+
+  private Predicate<InMemoryMonitor.LogEntry> logFilter(String level, String from, String to) {
+    Predicate<InMemoryMonitor.LogEntry> filter = entry -> true;
+    if (level != null) {
+      InMemoryMonitor.Level minimumLevel = InMemoryMonitor.Level.valueOf(level.toUpperCase());
+      filter = filter.and(entry -> InMemoryMonitor.Level.valueOf(entry.getLevel()).compareTo(minimumLevel) >= 0);
+    }
+    if (from != null) {
+      LocalDateTime fromTime = LocalDateTime.parse(from);
+      filter = filter.and(entry -> !entry.getTimestamp().isBefore(fromTime));
+    }
+    if (to != null) {
+      LocalDateTime toTime = LocalDateTime.parse(to);
+      filter = filter.and(entry -> entry.getTimestamp().isBefore(toTime));
+    }
+    return filter;
   }
 
+  /**
+   * Exposes the negotiation, notification, queue and HTTP metrics.
+   *
+   * @return The metrics in the Prometheus text exposition format.
+   */
+  @GET
+  @Path("metrics")
+  @Produces(MetricsRegistry.CONTENT_TYPE)
+  public String getMetrics() {
+    return metrics.scrape();
+  }
+
+  /**
+   * Retrieves the recorded spans of the exchanges this connector took part in.
+   *
+   * @param traceId Only the spans of this trace, ordered by start time.
+   * @param limit   Maximum number of spans, the most recent ones are returned.
+   * @return The spans, oldest first.
+   */
+  @GET
+  @Path("traces")
+  public List<Span> getTraces(@QueryParam("traceId") String traceId, @QueryParam("limit") Integer limit) {
+    List<Span> spans = traceId != null ? tracer.getExporter().getTrace(traceId) : tracer.getExporter().getSpans();
+    if (limit != null && limit >= 0 && spans.size() > limit) {
+      return spans.subList(spans.size() - limit, spans.size());
+    }
+    return spans;
+  }
+
+  /**
+   * Retrieves the response of the latest negotiation initiated by this connector. Prefer
+   * {@link #getNegotiationResponse(String)}, as concurrent negotiations replace each other here.
+   */
   @GET
   @Path("negotiation-response")
   public Response getNegotiationResponse() {
-    if (this.negotiationResponse != null) {
-      return Response.ok(this.negotiationResponse).build();
+    String negotiationId = latestNegotiationId;
+    return getNegotiationResponse(negotiationId == null ? "" : negotiationId);
+  }
+
+  /**
+   * Retrieves the response of a negotiation by the id /negotiate returned. Responses are kept
+   * for a limited time and number of negotiations.
+   */
+  @GET
+  @Path("negotiation-response/{id}")
+  public Response getNegotiationResponse(@PathParam("id") String negotiationId) {
+    NegotiationResponse negotiationResponse = negotiationResults.get(negotiationId);
+    if (negotiationResponse != null) {
+      return Response.ok(negotiationResponse).build();
     } else {
       return Response.status(Response.Status.NOT_FOUND)
               .entity("{\"message\":\"No negotiation response found.\"}")
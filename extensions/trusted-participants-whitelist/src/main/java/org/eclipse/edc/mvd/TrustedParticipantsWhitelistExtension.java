@@ -14,7 +14,24 @@
 
 package org.eclipse.edc.mvd;
 
+import org.eclipse.edc.mvd.context.ExchangeContext;
+import org.eclipse.edc.mvd.metrics.MetricsRegistry;
+import org.eclipse.edc.mvd.service.DataExchangeQueueManager;
+import org.eclipse.edc.mvd.service.NotificationOutbox;
+import org.eclipse.edc.mvd.service.PeerCircuitBreakers;
+import org.eclipse.edc.mvd.service.PeerClient;
+import org.eclipse.edc.mvd.service.PeerHealthProber;
+import org.eclipse.edc.mvd.service.QueueLimits;
+import org.eclipse.edc.mvd.store.DataExchangeEntryStore;
+import org.eclipse.edc.mvd.store.InMemoryDataExchangeEntryStore;
+import org.eclipse.edc.mvd.store.JdbcConnectionFactory;
+import org.eclipse.edc.mvd.store.JdbcDataExchangeEntryStore;
+import org.eclipse.edc.mvd.store.JdbcExchangeContextStore;
+import org.eclipse.edc.mvd.tracing.InMemorySpanExporter;
+import org.eclipse.edc.mvd.tracing.Tracer;
+import org.eclipse.edc.mvd.util.ExpiringCache;
 import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Setting;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.web.spi.WebService;
@@ -23,7 +40,8 @@ import org.eclipse.edc.spi.monitor.Monitor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.net.http.HttpClient;
-import java.io.IOException;
+import java.sql.DriverManager;
+import java.time.Duration;
 
 
 /**
@@ -31,9 +49,76 @@ import java.io.IOException;
  */
 public class TrustedParticipantsWhitelistExtension implements ServiceExtension {
 
+  @Setting(value = "JDBC URL of the database shared by clustered trustees. The trustee state is kept in memory if not set.")
+  public static final String STORE_JDBC_URL = "edc.trusted-participants.store.jdbc.url";
+  @Setting(value = "User of the trustee state database.")
+  public static final String STORE_JDBC_USER = "edc.trusted-participants.store.jdbc.user";
+  @Setting(value = "Password of the trustee state database.")
+  public static final String STORE_JDBC_PASSWORD = "edc.trusted-participants.store.jdbc.password";
+
+  @Setting(value = "Number of log entries kept in memory for the /logs endpoint.", defaultValue = "1000", type = "int")
+  public static final String LOG_CAPACITY = "edc.trusted-participants.logs.capacity";
+  @Setting(value = "Minimum level (DEBUG, INFO, WARNING, SEVERE) of log entries kept in memory for the /logs endpoint.", defaultValue = "DEBUG")
+  public static final String LOG_LEVEL = "edc.trusted-participants.logs.level";
+
+  @Setting(value = "Number of finished spans kept in memory for the /traces endpoint.", defaultValue = "1000", type = "int")
+  public static final String TRACE_CAPACITY = "edc.trusted-participants.traces.capacity";
+
+  @Setting(value = "Maximum number of trusted participants a counterparty may send in a negotiation.", defaultValue = "100000", type = "int")
+  public static final String MAX_TRUSTEES = "edc.trusted-participants.negotiation.max-trustees";
+  @Setting(value = "Maximum number of negotiations of /negotiate-bulk running at once.", defaultValue = "16", type = "int")
+  public static final String BULK_PARALLELISM = "edc.trusted-participants.negotiate.bulk.parallelism";
+  @Setting(value = "Seconds a counterparty or trustee has to answer a call of /negotiate-bulk.", defaultValue = "10", type = "long")
+  public static final String BULK_PEER_TIMEOUT = "edc.trusted-participants.negotiate.bulk.peer-timeout";
+
+  @Setting(value = "Seconds a request without an X-Request-Deadline header may take, 0 for no deadline.", defaultValue = "30", type = "long")
+  public static final String DEFAULT_DEADLINE = "edc.trusted-participants.deadline.default";
+
+  @Setting(value = "Maximum number of received negotiations handled at once, 0 for no limit.", defaultValue = "0", type = "int")
+  public static final String MAX_CONCURRENT_NEGOTIATIONS = "edc.trusted-participants.negotiation.max-concurrent";
+  @Setting(value = "Negotiations and notifications per second a participant may send, 0 for no limit.", defaultValue = "0", type = "int")
+  public static final String PARTICIPANT_RATE = "edc.trusted-participants.rate-limit.per-second";
+  @Setting(value = "Negotiations and notifications a participant may send at once before being rate limited.", defaultValue = "100", type = "int")
+  public static final String PARTICIPANT_BURST = "edc.trusted-participants.rate-limit.burst";
+  @Setting(value = "Maximum number of data exchange entries in the queue, 0 for no limit.", defaultValue = "0", type = "int")
+  public static final String QUEUE_MAX_ENTRIES = "edc.trusted-participants.queue.max-entries";
+  @Setting(value = "Maximum number of data exchange entries waiting for their second notification, 0 for no limit.", defaultValue = "0", type = "int")
+  public static final String QUEUE_MAX_NOT_READY = "edc.trusted-participants.queue.max-not-ready";
+  @Setting(value = "Partitions of the data exchange queue, by default the number of processors.", type = "int")
+  public static final String QUEUE_PARTITIONS = "edc.trusted-participants.queue.partitions";
+  @Setting(value = "Milliseconds between sweeps of each queue partition for timed out entries, 0 to disable them.", defaultValue = "1000", type = "long")
+  public static final String QUEUE_SWEEP_INTERVAL = "edc.trusted-participants.queue.sweep-interval";
+
+  @Setting(value = "Attempts to deliver a notification to the chosen trustee before giving up.", defaultValue = "5", type = "int")
+  public static final String OUTBOX_MAX_ATTEMPTS = "edc.trusted-participants.notify.outbox.max-attempts";
+  @Setting(value = "Milliseconds before the first retry of a notification, doubled for every further retry.", defaultValue = "500", type = "long")
+  public static final String OUTBOX_BACKOFF = "edc.trusted-participants.notify.outbox.backoff";
+
+  @Setting(value = "Seconds the response of a negotiation is kept for /negotiation-response/{id}.", defaultValue = "3600", type = "long")
+  public static final String NEGOTIATION_RESULT_TTL = "edc.trusted-participants.negotiation-results.ttl";
+  @Setting(value = "Maximum number of negotiation responses kept for /negotiation-response/{id}.", defaultValue = "10000", type = "int")
+  public static final String NEGOTIATION_RESULT_MAX_SIZE = "edc.trusted-participants.negotiation-results.max-size";
+
+  @Setting(value = "Seconds a /notify idempotency key is remembered.", defaultValue = "600", type = "long")
+  public static final String IDEMPOTENCY_TTL = "edc.trusted-participants.notify.idempotency.ttl";
+  @Setting(value = "Maximum number of /notify idempotency keys remembered.", defaultValue = "10000", type = "int")
+  public static final String IDEMPOTENCY_MAX_KEYS = "edc.trusted-participants.notify.idempotency.max-keys";
+
+  @Setting(value = "Consecutive failed calls to a peer host that open its circuit.", defaultValue = "5", type = "int")
+  public static final String CIRCUIT_FAILURE_THRESHOLD = "edc.trusted-participants.circuit.failure-threshold";
+  @Setting(value = "Seconds calls to a peer host with an open circuit are rejected before a trial call.", defaultValue = "30", type = "long")
+  public static final String CIRCUIT_OPEN_DURATION = "edc.trusted-participants.circuit.open-duration";
+  @Setting(value = "Seconds between health probes of the trusted participants, 0 to disable them.", defaultValue = "10", type = "long")
+  public static final String HEALTH_PROBE_INTERVAL = "edc.trusted-participants.health.probe-interval";
+
   @Inject
   WebService webService;
 
+  private PeerHealthProber healthProber;
+  private Duration healthProbeInterval;
+  private DataExchangeQueueManager queueManager;
+  private Duration queueSweepInterval;
+
   @Override
   public String name() {
     return "Maintain trusted participants.";
@@ -45,7 +130,72 @@ public class TrustedParticipantsWhitelistExtension implements ServiceExtension {
     HttpClient httpClient = HttpClient.newHttpClient();
     context.registerService(HttpClient.class, httpClient);
     ObjectMapper objectMapper = new ObjectMapper();
-    InMemoryMonitor inMemoryMonitor = new InMemoryMonitor(originalMonitor);
-    webService.registerResource(new TrustedParticipantsWhitelistApiController(inMemoryMonitor, objectMapper, httpClient));
+    InMemoryMonitor inMemoryMonitor = new InMemoryMonitor(originalMonitor,
+            context.getSetting(LOG_CAPACITY, InMemoryMonitor.DEFAULT_CAPACITY),
+            InMemoryMonitor.Level.valueOf(context.getSetting(LOG_LEVEL, InMemoryMonitor.Level.DEBUG.name()).toUpperCase()));
+    Tracer.getInstance().use(new InMemorySpanExporter(context.getSetting(TRACE_CAPACITY, InMemorySpanExporter.DEFAULT_CAPACITY)));
+    MetricsRegistry metrics = new MetricsRegistry();
+    PeerCircuitBreakers.getInstance().configure(
+            context.getSetting(CIRCUIT_FAILURE_THRESHOLD, PeerCircuitBreakers.DEFAULT_FAILURE_THRESHOLD),
+            Duration.ofSeconds(context.getSetting(CIRCUIT_OPEN_DURATION, PeerCircuitBreakers.DEFAULT_OPEN_DURATION.toSeconds())));
+    healthProbeInterval = Duration.ofSeconds(context.getSetting(HEALTH_PROBE_INTERVAL, PeerHealthProber.DEFAULT_INTERVAL.toSeconds()));
+    healthProber = new PeerHealthProber(httpClient, PeerCircuitBreakers.getInstance(),
+            TrustedParticipantsWhitelist.getInstance()::getTrustedParticipants, inMemoryMonitor);
+    queueSweepInterval = Duration.ofMillis(context.getSetting(QUEUE_SWEEP_INTERVAL, DataExchangeQueueManager.DEFAULT_SWEEP_INTERVAL.toMillis()));
+    queueManager = new DataExchangeQueueManager(
+            createEntryStore(context, objectMapper), objectMapper, httpClient, inMemoryMonitor, metrics,
+            new ExpiringCache<>(context.getSetting(IDEMPOTENCY_MAX_KEYS, DataExchangeQueueManager.DEFAULT_IDEMPOTENCY_KEYS),
+                    Duration.ofSeconds(context.getSetting(IDEMPOTENCY_TTL, DataExchangeQueueManager.DEFAULT_IDEMPOTENCY_TTL.toSeconds()))),
+            new QueueLimits(context.getSetting(QUEUE_MAX_ENTRIES, QueueLimits.DEFAULT.maxEntries()),
+                    context.getSetting(QUEUE_MAX_NOT_READY, QueueLimits.DEFAULT.maxNotReady())),
+            context.getSetting(QUEUE_PARTITIONS, DataExchangeQueueManager.DEFAULT_PARTITIONS));
+    NegotiationSettings negotiationSettings = new NegotiationSettings(
+            context.getSetting(BULK_PARALLELISM, NegotiationSettings.DEFAULT.bulkParallelism()),
+            Duration.ofSeconds(context.getSetting(BULK_PEER_TIMEOUT, NegotiationSettings.DEFAULT.peerTimeout().toSeconds())),
+            context.getSetting(MAX_TRUSTEES, NegotiationSettings.DEFAULT.maxTrustees()),
+            Duration.ofSeconds(context.getSetting(DEFAULT_DEADLINE, NegotiationSettings.DEFAULT.defaultDeadline().toSeconds())),
+            context.getSetting(MAX_CONCURRENT_NEGOTIATIONS, NegotiationSettings.DEFAULT.maxConcurrentNegotiations()),
+            context.getSetting(PARTICIPANT_RATE, (int) NegotiationSettings.DEFAULT.participantRate()),
+            context.getSetting(PARTICIPANT_BURST, NegotiationSettings.DEFAULT.participantBurst()));
+    webService.registerResource(new TrustedParticipantsWhitelistApiController(inMemoryMonitor, objectMapper, httpClient, queueManager, metrics,
+            negotiationSettings,
+            new NotificationOutbox(new PeerClient(httpClient, metrics), inMemoryMonitor, metrics,
+                    context.getSetting(OUTBOX_MAX_ATTEMPTS, NotificationOutbox.DEFAULT_MAX_ATTEMPTS),
+                    Duration.ofMillis(context.getSetting(OUTBOX_BACKOFF, NotificationOutbox.DEFAULT_INITIAL_BACKOFF.toMillis()))),
+            new ExpiringCache<>(context.getSetting(NEGOTIATION_RESULT_MAX_SIZE, TrustedParticipantsWhitelistApiController.DEFAULT_NEGOTIATION_RESULTS),
+                    Duration.ofSeconds(context.getSetting(NEGOTIATION_RESULT_TTL, TrustedParticipantsWhitelistApiController.DEFAULT_NEGOTIATION_RESULT_TTL.toSeconds())))));
+  }
+
+  @Override
+  public void start() {
+    if (!healthProbeInterval.isZero()) {
+      healthProber.start(healthProbeInterval);
+    }
+    if (!queueSweepInterval.isZero()) {
+      queueManager.startSweepers(queueSweepInterval);
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    healthProber.close();
+    queueManager.close();
+  }
+
+  /**
+   * Creates the store for the data exchange entries and points the ExchangeContext to the
+   * same database when a JDBC URL is configured.
+   */
+  private DataExchangeEntryStore createEntryStore(ServiceExtensionContext context, ObjectMapper objectMapper) {
+    String url = context.getSetting(STORE_JDBC_URL, null);
+    if (url == null) {
+      return new InMemoryDataExchangeEntryStore();
+    }
+    String user = context.getSetting(STORE_JDBC_USER, null);
+    String password = context.getSetting(STORE_JDBC_PASSWORD, null);
+    JdbcConnectionFactory connectionFactory = () -> DriverManager.getConnection(url, user, password);
+    ExchangeContext.use(new JdbcExchangeContextStore(connectionFactory));
+    context.getMonitor().info("Trustee state is stored in " + url);
+    return new JdbcDataExchangeEntryStore(connectionFactory, objectMapper);
   }
 }
@@ -1,55 +1,71 @@
 package org.eclipse.edc.mvd.context;
 
+import org.eclipse.edc.mvd.store.ExchangeContextStore;
+import org.eclipse.edc.mvd.store.InMemoryExchangeContextStore;
+
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Stores provider & consumer connector base URLs per asset (id → URLs).
- * The context is kept in‑memory because a single trustee instance runs in the container.
- * Persist to external store if you cluster.
+ * The context is kept in‑memory by default, which is enough for a single trustee instance.
+ * Clustered trustees plug in a shared {@link ExchangeContextStore} through {@link #use}.
+ * <p>
+ * Keys follow the {@code <entryId>::<assetId>} naming convention, which lets the store
+ * list or drop the assets of one entry without looking at the other entries.
  */
 public final class ExchangeContext {
-    private record Ctx(String provider, String consumer) { }
 
-    private static final Map<String, Ctx> MAP = new ConcurrentHashMap<>();
+    private static volatile ExchangeContextStore store = new InMemoryExchangeContextStore();
 
     private ExchangeContext() { }
 
     /* ───────────────────────────── public API ──────────────────────────── */
 
+    /** replace the backing store, called once while the extension initializes */
+    public static void use(ExchangeContextStore contextStore) {
+        store = contextStore;
+    }
+
     /** remember where an asset comes from / goes to */
     public static void put(String assetId, String provider, String consumer) {
-        MAP.put(assetId, new Ctx(provider, consumer));
+        store.put(assetId, provider, consumer);
     }
 
     /** return provider base-URL or throw a descriptive error */
     public static String provider(String assetId) {
-        Ctx ctx = MAP.get(assetId);
-        if (ctx == null) {
+        ExchangeContextStore.Urls urls = store.find(assetId);
+        if (urls == null) {
             throw new IllegalStateException("No provider URL known for asset " + assetId);
         }
-        return ctx.provider();
+        return urls.provider();
     }
 
     /** return consumer base-URL or throw a descriptive error */
     public static String consumer(String assetId) {
-        Ctx ctx = MAP.get(assetId);
-        if (ctx == null) {
+        ExchangeContextStore.Urls urls = store.find(assetId);
+        if (urls == null) {
             throw new IllegalStateException("No consumer URL known for asset " + assetId);
         }
-        return ctx.consumer();
+        return urls.consumer();
     }
 
     /** list *every* asset currently stored in the context */
     public static List<String> allAssets() {
-        return MAP.keySet().stream().toList();
+        return store.keys();
     }
 
     /** list only the assets that belong to the given entry-id */
     public static List<String> assetsOfEntry(String entryId) {
-        return MAP.keySet().stream()
-                .filter(a -> a.startsWith(entryId + "::"))   // naming convention
-                .toList();
+        return store.keysOfEntry(entryId);
+    }
+
+    /** forget every asset that belongs to the given entry-id */
+    public static void removeEntry(String entryId) {
+        store.removeEntry(entryId);
+    }
+
+    /** drop the whole context, mainly useful to reset state between tests */
+    public static void clear() {
+        store.clear();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,152 @@
+package org.eclipse.edc.mvd.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the counters, gauges and histograms of the trustee, rendered in the Prometheus
+ * text exposition format by {@link #scrape()}.
+ * <p>
+ * Metrics are identified by name and labels, labels are passed as alternating name/value
+ * pairs. Looking up a metric that already exists returns the registered instance, so callers
+ * may either keep the instance or look it up on every use.
+ */
+public class MetricsRegistry {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private enum Type {
+        COUNTER, GAUGE, HISTOGRAM;
+
+        String prometheusName() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, Type.COUNTER).children.computeIfAbsent(labels(labels), l -> new Counter());
+    }
+
+    public Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) family(name, help, Type.HISTOGRAM).children.computeIfAbsent(labels(labels), l -> new Histogram());
+    }
+
+    /**
+     * Registers a gauge whose value is read when the metrics are scraped. Registering the
+     * same name and labels again replaces the previous value supplier.
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, Type.GAUGE).children.put(labels(labels), value);
+    }
+
+    /**
+     * Registers a set of gauges computed together when the metrics are scraped, e.g. the
+     * number of entries per state from a single pass over the entries. Every key of the map
+     * becomes the value of the given label.
+     */
+    public void gauges(String name, String help, String label, Supplier<Map<String, ? extends Number>> values) {
+        family(name, help, Type.GAUGE).collector = new GaugeCollector(label, values);
+    }
+
+    /**
+     * @return all metrics in the Prometheus text exposition format, families sorted by name.
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder();
+        for (Family family : new TreeMap<>(families).values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type.prometheusName()).append('\n');
+            for (Map.Entry<String, Object> child : new TreeMap<>(family.children).entrySet()) {
+                writeSample(out, family.name, child.getKey(), child.getValue());
+            }
+            GaugeCollector collector = family.collector;
+            if (collector != null) {
+                for (Map.Entry<String, ? extends Number> value : new TreeMap<>(collector.values.get()).entrySet()) {
+                    sample(out, family.name, labels(collector.label, value.getKey()), format(value.getValue().doubleValue()));
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private void writeSample(StringBuilder out, String name, String labels, Object metric) {
+        if (metric instanceof Counter counter) {
+            sample(out, name, labels, Long.toString(counter.count()));
+        } else if (metric instanceof DoubleSupplier gauge) {
+            sample(out, name, labels, format(gauge.getAsDouble()));
+        } else if (metric instanceof Histogram histogram) {
+            long[] counts = histogram.cumulativeCounts();
+            String prefix = labels.isEmpty() ? "" : labels + ",";
+            for (int i = 0; i < Histogram.BUCKETS.length; i++) {
+                sample(out, name + "_bucket", prefix + "le=\"" + format(Histogram.BUCKETS[i]) + "\"", Long.toString(counts[i]));
+            }
+            sample(out, name + "_bucket", prefix + "le=\"+Inf\"", Long.toString(counts[counts.length - 1]));
+            sample(out, name + "_sum", labels, format(histogram.sumSeconds()));
+            sample(out, name + "_count", labels, Long.toString(counts[counts.length - 1]));
+        }
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, String value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private Family family(String name, String help, Type type) {
+        Family family = families.computeIfAbsent(name, n -> new Family(n, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as " + family.type.prometheusName());
+        }
+        return family;
+    }
+
+    private static String labels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        StringBuilder rendered = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                rendered.append(',');
+            }
+            rendered.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return rendered.toString();
+    }
+
+    private static String escape(String value) {
+        return String.valueOf(value).replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static final class Family {
+        private final String name;
+        private final String help;
+        private final Type type;
+        // Counter, Histogram or DoubleSupplier by rendered labels
+        private final Map<String, Object> children = new ConcurrentHashMap<>();
+        private volatile GaugeCollector collector;
+
+        private Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+
+    private record GaugeCollector(String label, Supplier<Map<String, ? extends Number>> values) {
+    }
+}
@@ -1,33 +1,90 @@
 package org.eclipse.edc.mvd.model;
 
+import org.eclipse.edc.mvd.util.Interner;
+
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
 import java.util.List;
-
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.UUID;
 
-
+/**
+ * A data exchange between a provider and a consumer, as queued by the trustee.
+ * <p>
+ * Large backlogs of entries are kept on the heap, so the entry is stored compactly: a UUID id
+ * as two longs, the timestamps as nanoseconds since the epoch, and the asset ids and the
+ * participants as instances shared by all entries. The getters rebuild the usual types; the
+ * list of assets is a read-only view.
+ */
 public class DataExchangeEntry {
-    private String id;
+    private static final Interner<Participant> PARTICIPANTS = new Interner<>();
+    private static final Interner<String> ASSETS = new Interner<>();
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long idMostSignificantBits;
+    private final long idLeastSignificantBits;
+    // only set for ids that are not a UUID
+    private final String otherId;
     private Participant provider;
     private Participant consumer;
-    private List<String> assets;
+    private String[] assets;
     private DataExchangeState state;
-    private LocalDateTime createdAt;
-    private LocalDateTime lastUpdatedAt;
+    private final long createdAt;
+    private long lastUpdatedAt;
+    private long version;
 
     public DataExchangeEntry(Participant provider, Participant consumer, List<String> assets) {
-        this.id = UUID.randomUUID().toString();
-        this.provider = provider;
-        this.consumer = consumer;
-        this.assets = assets;
+        UUID id = UUID.randomUUID();
+        this.idMostSignificantBits = id.getMostSignificantBits();
+        this.idLeastSignificantBits = id.getLeastSignificantBits();
+        this.otherId = null;
+        this.provider = intern(provider);
+        this.consumer = intern(consumer);
+        this.assets = internAssets(assets);
         this.state = DataExchangeState.NOT_READY; // Start at NOT_READY
-        this.createdAt = LocalDateTime.now();
-        this.lastUpdatedAt = LocalDateTime.now();
+        this.createdAt = toEpochNanos(LocalDateTime.now());
+        this.lastUpdatedAt = createdAt;
+    }
+
+    // Restores an entry loaded from a DataExchangeEntryStore
+    public DataExchangeEntry(String id, Participant provider, Participant consumer, List<String> assets,
+                             DataExchangeState state, LocalDateTime createdAt, LocalDateTime lastUpdatedAt, long version) {
+        UUID uuid = parseUuid(id);
+        this.idMostSignificantBits = uuid != null ? uuid.getMostSignificantBits() : 0;
+        this.idLeastSignificantBits = uuid != null ? uuid.getLeastSignificantBits() : 0;
+        this.otherId = uuid != null ? null : id;
+        this.provider = intern(provider);
+        this.consumer = intern(consumer);
+        this.assets = internAssets(assets);
+        this.state = state;
+        this.createdAt = toEpochNanos(createdAt);
+        this.lastUpdatedAt = toEpochNanos(lastUpdatedAt);
+        this.version = version;
+    }
+
+    private DataExchangeEntry(DataExchangeEntry entry) {
+        this.idMostSignificantBits = entry.idMostSignificantBits;
+        this.idLeastSignificantBits = entry.idLeastSignificantBits;
+        this.otherId = entry.otherId;
+        this.provider = entry.provider;
+        this.consumer = entry.consumer;
+        // never modified, only replaced
+        this.assets = entry.assets;
+        this.state = entry.state;
+        this.createdAt = entry.createdAt;
+        this.lastUpdatedAt = entry.lastUpdatedAt;
+        this.version = entry.version;
+    }
+
+    public DataExchangeEntry copy() {
+        return new DataExchangeEntry(this);
     }
 
     // Getters and setters
     public String getId() {
-        return id;
+        return otherId != null ? otherId : new UUID(idMostSignificantBits, idLeastSignificantBits).toString();
     }
 
     public Participant getProvider() {
@@ -35,7 +92,7 @@ public class DataExchangeEntry {
     }
 
     public void setProvider(Participant provider) {
-        this.provider = provider;
+        this.provider = intern(provider);
         updateLastUpdatedAt();
     }
 
@@ -44,16 +101,16 @@ public class DataExchangeEntry {
     }
 
     public void setConsumer(Participant consumer) {
-        this.consumer = consumer;
+        this.consumer = intern(consumer);
         updateLastUpdatedAt();
     }
 
     public List<String> getAssets() {
-        return assets;
+        return assets != null ? new AssetList(assets) : null;
     }
 
     public void setAssets(List<String> assets) {
-        this.assets = assets;
+        this.assets = internAssets(assets);
         updateLastUpdatedAt();
     }
 
@@ -61,20 +118,104 @@ public class DataExchangeEntry {
         return state;
     }
 
+    // Sets the state without checking the transition table, e.g. to restore an entry
     public void setState(DataExchangeState state) {
         this.state = state;
         updateLastUpdatedAt();
     }
 
+    /**
+     * Moves the entry to the next state if {@link DataExchangeState#canTransitionTo} allows it.
+     * Written back with {@link org.eclipse.edc.mvd.store.DataExchangeEntryStore#update}, the
+     * transition is a compare-and-set: it only applies if the stored entry is still in the
+     * state it was read in.
+     *
+     * @return true if the state changed.
+     */
+    public boolean transitionTo(DataExchangeState next) {
+        if (!state.canTransitionTo(next)) {
+            return false;
+        }
+        setState(next);
+        return true;
+    }
+
     public LocalDateTime getCreatedAt() {
-        return createdAt;
+        return fromEpochNanos(createdAt);
     }
 
     public LocalDateTime getLastUpdatedAt() {
-        return lastUpdatedAt;
+        return fromEpochNanos(lastUpdatedAt);
+    }
+
+    // Optimistic locking version, maintained by the DataExchangeEntryStore
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
     }
 
     public void updateLastUpdatedAt() {
-        this.lastUpdatedAt = LocalDateTime.now();
+        this.lastUpdatedAt = toEpochNanos(LocalDateTime.now());
+    }
+
+    private static UUID parseUuid(String id) {
+        // only ids that print the same again, e.g. not upper case ones
+        if (id == null || id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Participant intern(Participant participant) {
+        Participant canonical = PARTICIPANTS.intern(participant);
+        // participants are equal by name and URL, only share one that also has the same id
+        return canonical != null && Objects.equals(canonical.getId(), participant.getId()) ? canonical : participant;
+    }
+
+    private static String[] internAssets(List<String> assets) {
+        if (assets == null) {
+            return null;
+        }
+        String[] encoded = new String[assets.size()];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = ASSETS.intern(assets.get(i));
+        }
+        return encoded;
+    }
+
+    // the local time is counted as if it were UTC, so it converts back exactly
+    private static long toEpochNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + time.getNano();
+    }
+
+    private static LocalDateTime fromEpochNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND), (int) Math.floorMod(nanos, NANOS_PER_SECOND),
+                ZoneOffset.UTC);
+    }
+
+    private static final class AssetList extends AbstractList<String> implements RandomAccess {
+        private final String[] assets;
+
+        private AssetList(String[] assets) {
+            this.assets = assets;
+        }
+
+        @Override
+        public String get(int index) {
+            return assets[index];
+        }
+
+        @Override
+        public int size() {
+            return assets.length;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package org.eclipse.edc.mvd.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only view of a {@link DataExchangeEntry} as returned by /data-exchange-entries,
+ * serialized by Jackson as is.
+ */
+public record DataExchangeEntryView(String id, Participant provider, Participant consumer, List<String> assets,
+                                    DataExchangeState state, LocalDateTime createdAt, LocalDateTime lastUpdatedAt) {
+
+    public static DataExchangeEntryView of(DataExchangeEntry entry) {
+        return new DataExchangeEntryView(entry.getId(), entry.getProvider(), entry.getConsumer(), entry.getAssets(),
+                entry.getState(), entry.getCreatedAt(), entry.getLastUpdatedAt());
+    }
+}
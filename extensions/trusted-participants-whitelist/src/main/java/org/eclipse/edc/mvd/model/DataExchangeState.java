@@ -1,9 +1,40 @@
 package org.eclipse.edc.mvd.model;
 
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lifecycle of a data exchange entry. Every state change is checked against the transition
+ * table of {@link #canTransitionTo}; COMPLETED and FAILED are final.
+ */
 public enum DataExchangeState {
     NOT_READY,
     READY,
     IN_PROGRESS,
     COMPLETED,
-    FAILED
-}
\ No newline at end of file
+    FAILED;
+
+    private static final Map<DataExchangeState, Set<DataExchangeState>> TRANSITIONS = new EnumMap<>(DataExchangeState.class);
+
+    static {
+        TRANSITIONS.put(NOT_READY, EnumSet.of(READY, FAILED));
+        TRANSITIONS.put(READY, EnumSet.of(IN_PROGRESS, COMPLETED, FAILED));
+        TRANSITIONS.put(IN_PROGRESS, EnumSet.of(COMPLETED, FAILED));
+        TRANSITIONS.put(COMPLETED, EnumSet.noneOf(DataExchangeState.class));
+        TRANSITIONS.put(FAILED, EnumSet.noneOf(DataExchangeState.class));
+    }
+
+    /**
+     * @return true if an entry in this state may move to the next state. Staying in the same
+     *         state is not a transition.
+     */
+    public boolean canTransitionTo(DataExchangeState next) {
+        return TRANSITIONS.get(this).contains(next);
+    }
+
+    public boolean isFinal() {
+        return TRANSITIONS.get(this).isEmpty();
+    }
+}
@@ -14,7 +14,25 @@
 
 package org.eclipse.edc.mvd.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
-public record DataTrusteeRequest(Participant dataSource, Participant dataSink, List<String> assets, String senderType) {
+/**
+ * Notification of a data trustee about an exchange.
+ *
+ * @param idempotencyKey Optional key chosen by the sender; retries with the same key are
+ *                       answered with the entry of the first notification.
+ */
+public record DataTrusteeRequest(Participant dataSource, Participant dataSink, List<String> assets, String senderType,
+                                 @JsonInclude(JsonInclude.Include.NON_NULL) String idempotencyKey) {
+
+    @JsonCreator
+    public DataTrusteeRequest {
+    }
+
+    public DataTrusteeRequest(Participant dataSource, Participant dataSink, List<String> assets, String senderType) {
+        this(dataSource, dataSink, assets, senderType, null);
+    }
 }
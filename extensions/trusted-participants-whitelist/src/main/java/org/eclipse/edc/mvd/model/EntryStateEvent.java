@@ -0,0 +1,22 @@
+package org.eclipse.edc.mvd.model;
+
+import java.util.List;
+
+/**
+ * State transition of a {@link DataExchangeEntry}, streamed to subscribers of the entry events.
+ *
+ * @param sequence      Increasing number of the event on this trustee instance.
+ * @param previousState State before the transition, null for a newly created entry.
+ * @param timestamp     ISO-8601 local date-time of the transition.
+ */
+public record EntryStateEvent(long sequence, String entryId, DataExchangeState previousState, DataExchangeState state,
+                              Participant provider, Participant consumer, List<String> assets, String timestamp) {
+
+    public boolean concerns(String participant) {
+        return isParticipant(provider, participant) || isParticipant(consumer, participant);
+    }
+
+    private static boolean isParticipant(Participant candidate, String participant) {
+        return candidate != null && (participant.equals(candidate.getId()) || participant.equals(candidate.getName()));
+    }
+}
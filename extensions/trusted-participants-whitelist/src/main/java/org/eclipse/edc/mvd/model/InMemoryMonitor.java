@@ -5,120 +5,265 @@ import org.eclipse.edc.spi.monitor.Monitor;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
+/**
+ * Monitor that forwards to a delegate and keeps the latest log entries in memory for the
+ * /logs endpoint. The entries live in a fixed-capacity ring buffer: writers claim a
+ * sequence number and overwrite the oldest slot without taking a lock.
+ * <p>
+ * Entries below the minimum capture level are not kept. Messages passed as suppliers are
+ * formatted at most once, either when the delegate emits them or when the entry is read.
+ */
 public class InMemoryMonitor implements Monitor {
 
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    public enum Level {
+        DEBUG,
+        INFO,
+        WARNING,
+        SEVERE
+    }
+
     private final Monitor delegate;
-    private final List<LogEntry> logEntries = new ArrayList<>();
-    private static final int MAX_LOG_ENTRIES = 1000;
+    private final int capacity;
+    private final Level minimumLevel;
+    private final AtomicReferenceArray<LogEntry> logEntries;
+    private final AtomicLong nextSequence = new AtomicLong();
+    // readers tailing the log wait here; writers only signal while somebody is waiting
+    private final AtomicInteger waitingReaders = new AtomicInteger();
+    private final ReentrantLock newEntryLock = new ReentrantLock();
+    private final Condition newEntry = newEntryLock.newCondition();
 
     public InMemoryMonitor(Monitor delegate) {
+        this(delegate, DEFAULT_CAPACITY);
+    }
+
+    public InMemoryMonitor(Monitor delegate, int capacity) {
+        this(delegate, capacity, Level.DEBUG);
+    }
+
+    public InMemoryMonitor(Monitor delegate, int capacity, Level minimumLevel) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Log capacity must be positive: " + capacity);
+        }
         this.delegate = delegate;
+        this.capacity = capacity;
+        this.minimumLevel = minimumLevel;
+        this.logEntries = new AtomicReferenceArray<>(capacity);
     }
 
     @Override
     public void severe(String message, Throwable... errors) {
         delegate.severe(message, errors);
-        log("SEVERE", message, errors);
+        log(Level.SEVERE, () -> message, errors);
     }
 
     @Override
     public void severe(Supplier<String> supplier, Throwable... errors) {
-        delegate.severe(supplier, errors);
-        String message = supplier.get();
-        log("SEVERE", message, errors);
+        Supplier<String> message = new LazyMessage(supplier);
+        delegate.severe(message, errors);
+        log(Level.SEVERE, message, errors);
     }
 
     @Override
     public void severe(java.util.Map<String, Object> data) {
         delegate.severe(data);
-        log("SEVERE", data.toString());
+        log(Level.SEVERE, data::toString);
     }
 
     @Override
     public void warning(String message, Throwable... errors) {
         delegate.warning(message, errors);
-        log("WARNING", message, errors);
+        log(Level.WARNING, () -> message, errors);
     }
 
     @Override
     public void warning(Supplier<String> supplier, Throwable... errors) {
-        delegate.warning(supplier, errors);
-        String message = supplier.get();
-        log("WARNING", message, errors);
+        Supplier<String> message = new LazyMessage(supplier);
+        delegate.warning(message, errors);
+        log(Level.WARNING, message, errors);
     }
 
     @Override
     public void info(String message, Throwable... errors) {
         delegate.info(message, errors);
-        log("INFO", message, errors);
+        log(Level.INFO, () -> message, errors);
     }
 
     @Override
     public void info(Supplier<String> supplier, Throwable... errors) {
-        delegate.info(supplier, errors);
-        String message = supplier.get();
-        log("INFO", message, errors);
+        Supplier<String> message = new LazyMessage(supplier);
+        delegate.info(message, errors);
+        log(Level.INFO, message, errors);
     }
 
     @Override
     public void debug(String message, Throwable... errors) {
         delegate.debug(message, errors);
-        log("DEBUG", message, errors);
+        log(Level.DEBUG, () -> message, errors);
     }
 
     @Override
     public void debug(Supplier<String> supplier, Throwable... errors) {
-        delegate.debug(supplier, errors);
-        String message = supplier.get();
-        log("DEBUG", message, errors);
+        Supplier<String> message = new LazyMessage(supplier);
+        delegate.debug(message, errors);
+        log(Level.DEBUG, message, errors);
     }
 
-    private void log(String level, String message, Throwable... errors) {
-        StringBuilder fullMessage = new StringBuilder(message);
-        if (errors != null && errors.length > 0) {
-            for (Throwable error : errors) {
-                fullMessage.append("\nException: ").append(error.toString());
+    private void log(Level level, Supplier<String> message, Throwable... errors) {
+        if (level.compareTo(minimumLevel) < 0) {
+            return;
+        }
+        long sequence = nextSequence.getAndIncrement();
+        logEntries.set(slot(sequence), new LogEntry(sequence, LocalDateTime.now(), level.name(), message, errors));
+        if (waitingReaders.get() > 0) {
+            newEntryLock.lock();
+            try {
+                newEntry.signalAll();
+            } finally {
+                newEntryLock.unlock();
             }
         }
-        LogEntry entry = new LogEntry(LocalDateTime.now(), level, fullMessage.toString());
-        synchronized (logEntries) {
-            logEntries.add(entry);
-            if (logEntries.size() > MAX_LOG_ENTRIES) {
-                logEntries.remove(0); // Remove the oldest entry
+    }
+
+    /**
+     * Returns the retained log entries, oldest first. Slots that are being overwritten
+     * while the snapshot is taken are skipped, the snapshot ends before the first entry
+     * that is still being written.
+     */
+    public List<LogEntry> getLogEntries() {
+        return getLogEntriesAfter(-1);
+    }
+
+    /**
+     * Returns the retained log entries with a sequence number greater than the given one,
+     * oldest first. Only the slots after the given sequence number are visited.
+     */
+    public List<LogEntry> getLogEntriesAfter(long afterSequence) {
+        long end = nextSequence.get();
+        long start = Math.max(Math.max(0, afterSequence + 1), end - capacity);
+        if (start >= end) {
+            return List.of();
+        }
+        List<LogEntry> snapshot = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            LogEntry entry = logEntries.get(slot(sequence));
+            if (entry == null || entry.getSequence() < sequence) {
+                // claimed but not written yet, stop here so cursors never skip it
+                break;
+            }
+            if (entry.getSequence() == sequence) {
+                snapshot.add(entry);
             }
         }
+        return snapshot;
     }
 
-    // Overloaded log method for Map data
-    private void log(String level, String message) {
-        LogEntry entry = new LogEntry(LocalDateTime.now(), level, message);
-        synchronized (logEntries) {
-            logEntries.add(entry);
-            if (logEntries.size() > MAX_LOG_ENTRIES) {
-                logEntries.remove(0);
+    /**
+     * Waits until an entry with a sequence number greater than the given one was logged.
+     *
+     * @return true if such an entry exists, false if the timeout elapsed before.
+     */
+    public boolean awaitEntriesAfter(long afterSequence, long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        waitingReaders.incrementAndGet();
+        newEntryLock.lock();
+        try {
+            while (nextSequence.get() <= afterSequence + 1) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = newEntry.awaitNanos(remaining);
             }
+            return true;
+        } finally {
+            newEntryLock.unlock();
+            waitingReaders.decrementAndGet();
         }
     }
 
-    public List<LogEntry> getLogEntries() {
-        synchronized (logEntries) {
-            return new ArrayList<>(logEntries);
+    /**
+     * @return the sequence number of the latest log entry, or -1 if nothing was logged yet.
+     */
+    public long getLastSequence() {
+        return nextSequence.get() - 1;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Level getMinimumLevel() {
+        return minimumLevel;
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    /**
+     * Supplier shared by the delegate and the log entry, so the message is built only once.
+     */
+    private static final class LazyMessage implements Supplier<String> {
+        private Supplier<String> supplier;
+        private volatile String message;
+
+        LazyMessage(Supplier<String> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        public String get() {
+            String result = message;
+            if (result == null) {
+                synchronized (this) {
+                    result = message;
+                    if (result == null) {
+                        result = String.valueOf(supplier.get());
+                        message = result;
+                        supplier = null;
+                    }
+                }
+            }
+            return result;
         }
     }
 
     public static class LogEntry {
+        private final long sequence;
         private final LocalDateTime timestamp;
         private final String level;
-        private final String message;
+        private Supplier<String> messageSupplier;
+        private Throwable[] errors;
+        private volatile String message;
 
-        public LogEntry(LocalDateTime timestamp, String level, String message) {
+        public LogEntry(long sequence, LocalDateTime timestamp, String level, String message) {
+            this.sequence = sequence;
             this.timestamp = timestamp;
             this.level = level;
             this.message = message;
         }
 
+        public LogEntry(long sequence, LocalDateTime timestamp, String level, Supplier<String> message, Throwable... errors) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.level = level;
+            this.messageSupplier = message;
+            this.errors = errors;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
         public LocalDateTime getTimestamp() {
             return timestamp;
         }
@@ -128,7 +273,31 @@ public class InMemoryMonitor implements Monitor {
         }
 
         public String getMessage() {
-            return message;
+            String result = message;
+            if (result == null) {
+                synchronized (this) {
+                    result = message;
+                    if (result == null) {
+                        result = format();
+                        message = result;
+                        messageSupplier = null;
+                        errors = null;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private String format() {
+            String text = messageSupplier.get();
+            if (errors == null || errors.length == 0) {
+                return text;
+            }
+            StringBuilder fullMessage = new StringBuilder(text);
+            for (Throwable error : errors) {
+                fullMessage.append("\nException: ").append(error.toString());
+            }
+            return fullMessage.toString();
         }
     }
-}
\ No newline at end of file
+}
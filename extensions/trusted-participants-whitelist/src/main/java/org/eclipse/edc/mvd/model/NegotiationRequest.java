@@ -14,7 +14,25 @@
 
 package org.eclipse.edc.mvd.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
-public record NegotiationRequest(Participant dataSource, Participant dataSink, List<Participant> trustedDataTrustees, List<String> assets, String hash) {
+/**
+ * Negotiation of a commonly trusted data trustee for an exchange.
+ *
+ * @param assetGroups Optional groups of assets negotiated together. Each group becomes an exchange
+ *                    of its own, notified to the chosen trustee in one batch.
+ */
+public record NegotiationRequest(Participant dataSource, Participant dataSink, List<Participant> trustedDataTrustees, List<String> assets, String hash,
+                                 @JsonInclude(JsonInclude.Include.NON_NULL) List<List<String>> assetGroups) {
+
+    @JsonCreator
+    public NegotiationRequest {
+    }
+
+    public NegotiationRequest(Participant dataSource, Participant dataSink, List<Participant> trustedDataTrustees, List<String> assets, String hash) {
+        this(dataSource, dataSink, trustedDataTrustees, assets, hash, null);
+    }
 }
@@ -14,7 +14,26 @@
 
 package org.eclipse.edc.mvd.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
-public record NegotiationResponse(Participant dataSource, Participant dataSink, Participant trustedDataTrustee, List<String> assets) {
+/**
+ * Answer of the counterparty to a negotiation request.
+ *
+ * @param trusteeCandidates The commonly trusted trustees in the order both parties fail over
+ *                          to them, starting with the chosen one. Absent in answers of older
+ *                          connectors, which only chose a trustee.
+ */
+public record NegotiationResponse(Participant dataSource, Participant dataSink, Participant trustedDataTrustee, List<String> assets,
+                                  @JsonInclude(JsonInclude.Include.NON_NULL) List<Participant> trusteeCandidates) {
+
+    @JsonCreator
+    public NegotiationResponse {
+    }
+
+    public NegotiationResponse(Participant dataSource, Participant dataSink, Participant trustedDataTrustee, List<String> assets) {
+        this(dataSource, dataSink, trustedDataTrustee, assets, null);
+    }
 }
@@ -0,0 +1,25 @@
+/*
+ *  Copyright (c) 2024 Fraunhofer Institute for Software and Systems Engineering
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Fraunhofer Institute for Software and Systems Engineering - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd.model;
+
+/**
+ * First round of a negotiation that sends a Bloom filter of the trusted participants of the
+ * initiator instead of the participants themselves.
+ *
+ * @param filter       The Base64 encoded bits of the filter.
+ * @param filterHashes The number of hash functions of the filter.
+ */
+public record PreNegotiationRequest(Participant dataSource, Participant dataSink, String filter, int filterHashes) {
+}
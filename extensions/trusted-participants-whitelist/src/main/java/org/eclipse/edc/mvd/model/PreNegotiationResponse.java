@@ -0,0 +1,24 @@
+/*
+ *  Copyright (c) 2024 Fraunhofer Institute for Software and Systems Engineering
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Fraunhofer Institute for Software and Systems Engineering - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd.model;
+
+import java.util.List;
+
+/**
+ * Answer to a {@link PreNegotiationRequest}: the trusted participants of the receiver that may
+ * also be trusted by the initiator. The initiator confirms them in a regular negotiation.
+ */
+public record PreNegotiationResponse(List<Participant> candidates) {
+}
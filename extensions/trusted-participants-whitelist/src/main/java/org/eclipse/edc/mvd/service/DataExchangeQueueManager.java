@@ -3,57 +3,349 @@ package org.eclipse.edc.mvd.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.eclipse.edc.mvd.model.DataExchangeEntry;
 import org.eclipse.edc.mvd.model.DataExchangeState;
+import org.eclipse.edc.mvd.model.DataTrusteeRequest;
 import org.eclipse.edc.mvd.model.Participant;
 import org.eclipse.edc.mvd.context.ExchangeContext;
+import org.eclipse.edc.mvd.metrics.Counter;
+import org.eclipse.edc.mvd.metrics.MetricsRegistry;
+import org.eclipse.edc.mvd.store.DataExchangeEntryQuery;
+import org.eclipse.edc.mvd.store.DataExchangeEntryStore;
+import org.eclipse.edc.mvd.store.InMemoryDataExchangeEntryStore;
+import org.eclipse.edc.mvd.util.ExpiringCache;
 
 import org.eclipse.edc.spi.monitor.Monitor;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-
-public class DataExchangeQueueManager {
-    private List<DataExchangeEntry> queue = new ArrayList<>();
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pairs the provider and consumer notifications of a data exchange into DataExchangeEntries
+ * and drives their lifecycle. Entries live in a {@link DataExchangeEntryStore}; with a shared
+ * store several trustee replicas can handle notifications of the same exchange, as every
+ * write is checked against the version the entry was read with and retried on conflict.
+ * <p>
+ * The queue depth per state, the time entries spend in each state and the timeouts are
+ * published in the {@link MetricsRegistry} passed in.
+ * <p>
+ * Notifications may carry an idempotency key. The entry id of a key is remembered for a while,
+ * so a retried notification returns the entry of the first one instead of being queued again.
+ * The notifications of a batch are paired one by one, each under the lock of its partition.
+ * <p>
+ * The queue is bounded by {@link QueueLimits}: a notification that would open a new entry
+ * beyond them is rejected with a {@link QueueFullException}. The limits are checked against
+ * the store before every new entry, so concurrent notifications may exceed them by a few.
+ * <p>
+ * The queue is split into partitions by the hash of the asset set of an exchange. A partition
+ * pairs its notifications under its own lock, looks up open entries by asset set instead of
+ * reading the whole queue, and sweeps only its own entries for timeouts, so notifications of
+ * different exchanges do not wait for each other. A sweep reads the entries of all asset sets
+ * of its partition in one lookup, so a sweep interval costs one query per partition rather than
+ * one per open exchange, at the price of a larger query. Entries written by other replicas of a
+ * shared store are only swept by {@link #processEntries()}.
+ */
+public class DataExchangeQueueManager implements AutoCloseable {
     private static final Duration TIMEOUT_DURATION = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_IDEMPOTENCY_TTL = Duration.ofMinutes(10);
+    public static final int DEFAULT_IDEMPOTENCY_KEYS = 10_000;
+    public static final int DEFAULT_PARTITIONS = Runtime.getRuntime().availableProcessors();
+    public static final Duration DEFAULT_SWEEP_INTERVAL = Duration.ofSeconds(1);
 
+    private final DataExchangeEntryStore store;
     private final ObjectMapper objectMapper;
-    private final HttpClient httpClient;
+    private final PeerClient peerClient;
     private final Monitor monitor;
+    private final MetricsRegistry metrics;
+    private final Counter createdEntries;
+    private final Counter timedOutEntries;
+    private final EntryEventPublisher events = new EntryEventPublisher();
+    private final ExpiringCache<String, String> idempotencyKeys;
+    private final Counter duplicateNotifications;
+    private final QueueLimits limits;
+    private final Partition[] partitions;
+    private ScheduledExecutorService sweepers;
+
+    /**
+     * Notifications of one asset set are paired under the lock of their partition, so the two
+     * first notifications of an exchange cannot both create an entry. The partition remembers
+     * the asset sets of its entries for its sweeper.
+     */
+    private static final class Partition {
+        private final Set<Set<String>> assetSets = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Thrown instead of adding a notification that would grow the queue beyond its limits.
+     */
+    public static class QueueFullException extends IllegalStateException {
+        private static final long serialVersionUID = 1L;
+
+        private final Duration retryAfter;
+
+        public QueueFullException(String message, Duration retryAfter) {
+            super(message);
+            this.retryAfter = retryAfter;
+        }
+
+        /**
+         * @return the time after which a retry may find room, when open entries have timed out.
+         */
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+    }
 
     public DataExchangeQueueManager(ObjectMapper objectMapper, HttpClient httpClient, Monitor monitor){
+        this(new InMemoryDataExchangeEntryStore(), objectMapper, httpClient, monitor);
+    }
+
+    public DataExchangeQueueManager(DataExchangeEntryStore store, ObjectMapper objectMapper, HttpClient httpClient, Monitor monitor){
+        this(store, objectMapper, httpClient, monitor, new MetricsRegistry());
+    }
+
+    public DataExchangeQueueManager(DataExchangeEntryStore store, ObjectMapper objectMapper, HttpClient httpClient, Monitor monitor,
+                                    MetricsRegistry metrics){
+        this(store, objectMapper, httpClient, monitor, metrics, new ExpiringCache<>(DEFAULT_IDEMPOTENCY_KEYS, DEFAULT_IDEMPOTENCY_TTL));
+    }
+
+    public DataExchangeQueueManager(DataExchangeEntryStore store, ObjectMapper objectMapper, HttpClient httpClient, Monitor monitor,
+                                    MetricsRegistry metrics, ExpiringCache<String, String> idempotencyKeys){
+        this(store, objectMapper, httpClient, monitor, metrics, idempotencyKeys, QueueLimits.DEFAULT);
+    }
+
+    public DataExchangeQueueManager(DataExchangeEntryStore store, ObjectMapper objectMapper, HttpClient httpClient, Monitor monitor,
+                                    MetricsRegistry metrics, ExpiringCache<String, String> idempotencyKeys, QueueLimits limits){
+        this(store, objectMapper, httpClient, monitor, metrics, idempotencyKeys, limits, DEFAULT_PARTITIONS);
+    }
+
+    public DataExchangeQueueManager(DataExchangeEntryStore store, ObjectMapper objectMapper, HttpClient httpClient, Monitor monitor,
+                                    MetricsRegistry metrics, ExpiringCache<String, String> idempotencyKeys, QueueLimits limits,
+                                    int partitions){
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("Number of partitions must be positive: " + partitions);
+        }
+        this.partitions = new Partition[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.partitions[i] = new Partition();
+        }
+        this.store = store;
+        this.limits = limits;
         this.objectMapper = objectMapper;
-        this.httpClient = httpClient;
+        this.peerClient = new PeerClient(httpClient, metrics);
         this.monitor = monitor;
+        this.metrics = metrics;
+        this.createdEntries = metrics.counter("trustee_entries_created_total", "Data exchange entries created by a first notification.");
+        this.idempotencyKeys = idempotencyKeys;
+        this.duplicateNotifications = metrics.counter("trustee_notifications_duplicate_total", "Retried notifications answered with the entry of the first notification.");
+        this.timedOutEntries = metrics.counter("trustee_entries_timed_out_total", "Data exchange entries failed because the second notification did not arrive in time.");
+        metrics.gauges("trustee_queue_entries", "Data exchange entries in the queue per state.", "state", this::countEntriesByState);
+        metrics.gauge("trustee_entry_event_subscribers", "Open subscriptions to entry state transitions.", events::getSubscriberCount);
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sweeps every partition for timed out and finished entries every interval, each partition
+     * on its own thread.
+     */
+    public synchronized void startSweepers(Duration interval) {
+        if (sweepers != null) {
+            return;
+        }
+        sweepers = Executors.newScheduledThreadPool(partitions.length, runnable -> {
+            Thread thread = new Thread(runnable, "trustee-queue-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Partition partition : partitions) {
+            sweepers.scheduleWithFixedDelay(() -> {
+                try {
+                    sweep(partition);
+                } catch (RuntimeException e) {
+                    monitor.warning("Sweeping the data exchange queue failed: " + e.getMessage());
+                }
+            }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (sweepers != null) {
+            sweepers.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the state transitions of the entries handled by this instance.
+     */
+    public EntryEventPublisher getEvents() {
+        return events;
     }
 
     public List<DataExchangeEntry> getEntries() {
-        return new ArrayList<>(queue);
+        return store.findAll();
+    }
+
+    public List<DataExchangeEntry> getEntries(DataExchangeEntryQuery query) {
+        return store.find(query);
     }
 
     public String addProviderNotification(Participant provider, List<String> assets) {
-        DataExchangeEntry entry = findOrCreateEntry(provider, null, assets);
-        entry.setProvider(provider);
-        updateEntryState(entry);
-        return entry.getId();
+        return addNotification(provider, null, assets);
     }
 
     public String addConsumerNotification(Participant consumer, List<String> assets) {
-        DataExchangeEntry entry = findOrCreateEntry(null, consumer, assets);
-        entry.setConsumer(consumer);
-        updateEntryState(entry);
-        return entry.getId();
+        return addNotification(null, consumer, assets);
+    }
+
+    /**
+     * Adds a provider notification unless one with the same idempotency key was added by the
+     * same provider before.
+     */
+    public NotificationResult addProviderNotification(Participant provider, List<String> assets, String idempotencyKey) {
+        return deduplicate("provider", provider, idempotencyKey, () -> addProviderNotification(provider, assets));
+    }
+
+    /**
+     * Adds a consumer notification unless one with the same idempotency key was added by the
+     * same consumer before.
+     */
+    public NotificationResult addConsumerNotification(Participant consumer, List<String> assets, String idempotencyKey) {
+        return deduplicate("consumer", consumer, idempotencyKey, () -> addConsumerNotification(consumer, assets));
+    }
+
+    /**
+     * Adds the notifications of a batch. Each is paired like a single notification, with a
+     * lookup of its asset set under the lock of its partition, so it also pairs with single
+     * notifications that arrive while the batch is added.
+     *
+     * @return the result of every notification, in the order of the batch.
+     * @throws IllegalArgumentException if a notification has an invalid sender type; nothing is added then.
+     */
+    public List<NotificationResult> addNotifications(List<DataTrusteeRequest> requests) {
+        for (int i = 0; i < requests.size(); i++) {
+            String senderType = requests.get(i).senderType();
+            if (!"provider".equalsIgnoreCase(senderType) && !"consumer".equalsIgnoreCase(senderType)) {
+                throw new IllegalArgumentException("Invalid sender type of notification " + i);
+            }
+        }
+        List<NotificationResult> results = new ArrayList<>(requests.size());
+        for (DataTrusteeRequest request : requests) {
+            if ("provider".equalsIgnoreCase(request.senderType())) {
+                results.add(deduplicate("provider", request.dataSource(), request.idempotencyKey(),
+                        () -> addNotification(request.dataSource(), null, request.assets())));
+            } else {
+                results.add(deduplicate("consumer", request.dataSink(), request.idempotencyKey(),
+                        () -> addNotification(null, request.dataSink(), request.assets())));
+            }
+        }
+        return results;
+    }
+
+    private NotificationResult deduplicate(String role, Participant sender, String idempotencyKey, Supplier<String> notification) {
+        if (idempotencyKey == null) {
+            return new NotificationResult(notification.get(), false);
+        }
+        // keys are chosen by the senders, so they are only unique per sender
+        String key = role + "|" + (sender == null ? "" : sender.getName() + "|" + sender.getUrl()) + "|" + idempotencyKey;
+        boolean[] added = { false };
+        String entryId = idempotencyKeys.computeIfAbsent(key, k -> {
+            added[0] = true;
+            return notification.get();
+        });
+        if (!added[0]) {
+            duplicateNotifications.increment();
+            monitor.debug(() -> "[DataExchangeQueueManager] Duplicate " + role + " notification " + idempotencyKey + " for Entry ID: " + entryId);
+        }
+        return new NotificationResult(entryId, !added[0]);
+    }
+
+    private String addNotification(Participant provider, Participant consumer, List<String> assets) {
+        Set<String> requestedAssets = new HashSet<>(assets);
+        Partition partition = partitionOf(requestedAssets);
+        synchronized (partition) {
+            String entryId = addNotification(provider, consumer, assets, requestedAssets);
+            partition.assetSets.add(requestedAssets);
+            return entryId;
+        }
+    }
+
+    private String addNotification(Participant provider, Participant consumer, List<String> assets, Set<String> requestedAssets) {
+        while (true) {
+            DataExchangeEntry existing = findEntry(store.findByAssets(requestedAssets), provider, consumer, requestedAssets);
+            if (existing == null) {
+                admit();
+                // nothing matched – create a brand-new queue row
+                DataExchangeEntry newEntry = new DataExchangeEntry(provider, consumer, assets);
+                monitor.info(() -> "[DataExchangeQueueManager] Creating new DataExchangeEntry ID: " + newEntry.getId());
+                updateEntryState(newEntry);
+                store.create(newEntry);
+                putExchangeContext(newEntry);
+                createdEntries.increment();
+                events.publish(newEntry, null);
+                return newEntry.getId();
+            }
+            DataExchangeState previousState = existing.getState();
+            LocalDateTime previousStateSince = existing.getLastUpdatedAt();
+            if (provider != null) {
+                existing.setProvider(provider);
+            }
+            if (consumer != null) {
+                existing.setConsumer(consumer);
+            }
+            updateEntryState(existing);
+            if (store.update(existing)) {
+                putExchangeContext(existing);
+                if (existing.getState() != previousState) {
+                    transitioned(existing, previousState, previousStateSince);
+                }
+                return existing.getId();
+            }
+            monitor.debug(() -> "[DataExchangeQueueManager] Entry ID: " + existing.getId() + " was modified concurrently, retrying notification");
+        }
     }
 
-    private DataExchangeEntry findOrCreateEntry(Participant provider, Participant consumer, List<String> assets) {
-        // Search for an existing entry with matching provider or consumer and assets
-        for (DataExchangeEntry entry : queue) {
+    private void admit() {
+        if (limits.maxEntries() == 0 && limits.maxNotReady() == 0) {
+            return;
+        }
+        Map<DataExchangeState, Integer> counts = store.countByState();
+        int entries = counts.values().stream().mapToInt(Integer::intValue).sum();
+        if (limits.maxEntries() > 0 && entries >= limits.maxEntries()) {
+            rejected("entries");
+            throw new QueueFullException("Queue is full with " + entries + " entries", TIMEOUT_DURATION);
+        }
+        int notReady = counts.getOrDefault(DataExchangeState.NOT_READY, 0);
+        if (limits.maxNotReady() > 0 && notReady >= limits.maxNotReady()) {
+            rejected("not_ready");
+            throw new QueueFullException("Queue is full with " + notReady + " entries waiting for their second notification",
+                    TIMEOUT_DURATION);
+        }
+    }
+
+    private void rejected(String limit) {
+        metrics.counter("trustee_notifications_rejected_total", "Notifications rejected because the queue reached a limit.", "limit", limit)
+                .increment();
+    }
+
+    private DataExchangeEntry findEntry(Collection<DataExchangeEntry> candidates, Participant provider, Participant consumer,
+                                        Set<String> requestedAssets) {
+        // Search for the oldest open entry with matching provider or consumer and assets
+        DataExchangeEntry match = null;
+        for (DataExchangeEntry entry : candidates) {
 
             /* ➊ assets must match (ignore ordering) */
             boolean sameAssets =
-                    new HashSet<>(entry.getAssets()).equals(new HashSet<>(assets));
+                    new HashSet<>(entry.getAssets()).equals(requestedAssets);
 
         /* ➋ treat NULL like a wildcard so the second notification
               can attach to the first row that was created               */
@@ -66,100 +358,98 @@ public class DataExchangeQueueManager {
                             entry.getConsumer().equals(consumer);
 
             if (sameAssets && providerMatches && consumerMatches &&
-                    entry.getState() != DataExchangeState.FAILED) {
+                    !entry.getState().isFinal() &&
+                    (match == null || entry.getCreatedAt().isBefore(match.getCreatedAt()))) {
 
-                return entry;                                     // ← reuse
+                match = entry;                                    // ← reuse
             }
         }
-
-        // nothing matched – create a brand-new queue row
-        DataExchangeEntry newEntry = new DataExchangeEntry(provider, consumer, assets);
-        monitor.info("[DataExchangeQueueManager] Creating new DataExchangeEntry ID: " + newEntry.getId());
-        queue.add(newEntry);
-        return newEntry;
+        return match;
     }
 
     private void updateEntryState(DataExchangeEntry entry) {
         if (entry.getProvider() != null && entry.getConsumer() != null) {
-            entry.setState(DataExchangeState.READY);
-            monitor.info("[DataExchangeQueueManager] Entry ID: " + entry.getId() + " is READY. Provider: " + entry.getProvider().getName() + ", Consumer: " + entry.getConsumer().getName());
-
-            String providerBase = entry.getProvider().getUrl()
-                    .replace("/api/trusted-participants", "");
-
-            String actualConsumerBase;
-            String consumerReportedUrl = entry.getConsumer().getUrl();
-            String consumerName = entry.getConsumer().getName();
-
-            monitor.info("[DataExchangeQueueManager] updateEntryState for Entry ID: " + entry.getId() + " - Consumer Reported URL: " + consumerReportedUrl + ", Consumer Name: " + consumerName);
-
-            boolean isConsumerActualButMisaddressedViaTrusteeUrl = "consumer".equals(consumerName) &&
-                    consumerReportedUrl != null &&
-                    (
-                            consumerReportedUrl.startsWith("http://localhost:39191") ||
-                                    consumerReportedUrl.startsWith("http://trustee-connector:39191") ||
-                                    consumerReportedUrl.startsWith("http://trustee-connector:9191") ||
-                                    consumerReportedUrl.startsWith("http://localhost:19191")
-                    );
-
-            if (isConsumerActualButMisaddressedViaTrusteeUrl) {
-                actualConsumerBase = "http://consumer-connector:9191"; // Correct internal Docker address for consumer's default API
-                monitor.info("[DataExchangeQueueManager] OVERRIDE for Entry ID: " + entry.getId() + ". Consumer is '" + consumerName + "' and URL '" + consumerReportedUrl +
-                        "' appears to be misaddressed (points to localhost from trustee or trustee itself). Setting actualConsumerBase to: " + actualConsumerBase);
-            } else if (consumerReportedUrl != null) {
-                actualConsumerBase = consumerReportedUrl.replace("/api/trusted-participants", "");
-                monitor.info("[DataExchangeQueueManager] NO OVERRIDE for Entry ID: " + entry.getId() + ". Using consumer base URL as derived: " + actualConsumerBase +
-                        " (Consumer Name: " + consumerName + ", URL: " + consumerReportedUrl + ")");
-            } else {
-                monitor.severe("[DataExchangeQueueManager] CRITICAL for Entry ID: " + entry.getId() + ": Consumer URL is null in DataExchangeEntry. Cannot set ExchangeContext for consumer.");
-                entry.setState(DataExchangeState.FAILED);
-                return;
+            // a repeated notification leaves an entry that is already READY or IN_PROGRESS as it is
+            if (entry.transitionTo(DataExchangeState.READY)) {
+                monitor.info(() -> "[DataExchangeQueueManager] Entry ID: " + entry.getId() + " is READY. Provider: " + entry.getProvider().getName() + ", Consumer: " + entry.getConsumer().getName());
             }
-
-            final String finalActualConsumerBase = actualConsumerBase;
-            entry.getAssets()
-                    .forEach(a -> {
-                        String contextKey = entry.getId() + "::" + a;
-                        monitor.info("[DataExchangeQueueManager] Storing in ExchangeContext for Entry ID " + entry.getId() + ": Key=" + contextKey +
-                                ", ProviderBase=" + providerBase +
-                                ", ConsumerBase=" + finalActualConsumerBase);
-                        ExchangeContext.put(contextKey, providerBase, finalActualConsumerBase);
-                        // Verification step
-                        try {
-                            String retrievedProvider = ExchangeContext.provider(contextKey);
-                            String retrievedConsumer = ExchangeContext.consumer(contextKey);
-                            monitor.info("[DataExchangeQueueManager] VERIFIED ExchangeContext for Key=" + contextKey +
-                                    ", Retrieved ProviderBase=" + retrievedProvider + ", Retrieved ConsumerBase=" + retrievedConsumer);
-                            if (!finalActualConsumerBase.equals(retrievedConsumer)) {
-                                monitor.severe("[DataExchangeQueueManager] !!! CONSUMER MISMATCH for Key=" + contextKey + " !!! Expected ConsumerBase " + finalActualConsumerBase +
-                                        " but got " + retrievedConsumer + " from ExchangeContext.");
-                            }
-                            if (!providerBase.equals(retrievedProvider)) {
-                                monitor.severe("[DataExchangeQueueManager] !!! PROVIDER MISMATCH for Key=" + contextKey + " !!! Expected ProviderBase " + providerBase +
-                                        " but got " + retrievedProvider + " from ExchangeContext.");
-                            }
-                        } catch (Exception e) {
-                            monitor.severe("[DataExchangeQueueManager] !!! ERROR VERIFYING ExchangeContext for Key=" + contextKey + " !!!: " + e.getMessage());
-                        }
-                    });
-            try {
-                HttpRequest req = HttpRequest.newBuilder()
-                        .uri(URI.create(providerBase + "/api/services"))
-                        .GET()
-                        .build();
-
-
-            } catch (Exception ex) {
-                monitor.warning("[ServiceSync] could not fetch services: " + ex.getMessage());
+            if (entry.getConsumer().getUrl() == null) {
+                monitor.severe(() -> "[DataExchangeQueueManager] CRITICAL for Entry ID: " + entry.getId() + ": Consumer URL is null in DataExchangeEntry. Cannot set ExchangeContext for consumer.");
+                entry.transitionTo(DataExchangeState.FAILED);
             }
         } else {
-            monitor.info("[DataExchangeQueueManager] Entry ID: " + entry.getId() + " - First notification received from " +
+            monitor.info(() -> "[DataExchangeQueueManager] Entry ID: " + entry.getId() + " - First notification received from " +
                     (entry.getProvider() != null ? entry.getProvider().getName() : (entry.getConsumer() != null ? entry.getConsumer().getName() : "Unknown Participant")) +
                     ", waiting for second notification…");
-            entry.setState(DataExchangeState.NOT_READY);
+            // the entry is still NOT_READY, the notification restarts its timeout
+            entry.updateLastUpdatedAt();
         }
     }
 
+    /**
+     * Stores the provider and consumer addresses of a paired entry in the {@link ExchangeContext}.
+     * Called only once the entry was written, so a write that lost against a concurrent one
+     * leaves no context behind.
+     */
+    private void putExchangeContext(DataExchangeEntry entry) {
+        if (entry.getProvider() == null || entry.getConsumer() == null || entry.getConsumer().getUrl() == null) {
+            return;
+        }
+        String providerBase = entry.getProvider().getUrl()
+                .replace("/api/trusted-participants", "");
+
+        String actualConsumerBase;
+        String consumerReportedUrl = entry.getConsumer().getUrl();
+        String consumerName = entry.getConsumer().getName();
+
+        monitor.info(() -> "[DataExchangeQueueManager] ExchangeContext for Entry ID: " + entry.getId() + " - Consumer Reported URL: " + consumerReportedUrl + ", Consumer Name: " + consumerName);
+
+        boolean isConsumerActualButMisaddressedViaTrusteeUrl = "consumer".equals(consumerName) &&
+                (
+                        consumerReportedUrl.startsWith("http://localhost:39191") ||
+                                consumerReportedUrl.startsWith("http://trustee-connector:39191") ||
+                                consumerReportedUrl.startsWith("http://trustee-connector:9191") ||
+                                consumerReportedUrl.startsWith("http://localhost:19191")
+                );
+
+        if (isConsumerActualButMisaddressedViaTrusteeUrl) {
+            actualConsumerBase = "http://consumer-connector:9191"; // Correct internal Docker address for consumer's default API
+            monitor.info(() -> "[DataExchangeQueueManager] OVERRIDE for Entry ID: " + entry.getId() + ". Consumer is '" + consumerName + "' and URL '" + consumerReportedUrl +
+                    "' appears to be misaddressed (points to localhost from trustee or trustee itself). Setting actualConsumerBase to: " + actualConsumerBase);
+        } else {
+            actualConsumerBase = consumerReportedUrl.replace("/api/trusted-participants", "");
+            monitor.info(() -> "[DataExchangeQueueManager] NO OVERRIDE for Entry ID: " + entry.getId() + ". Using consumer base URL as derived: " + actualConsumerBase +
+                    " (Consumer Name: " + consumerName + ", URL: " + consumerReportedUrl + ")");
+        }
+
+        final String finalActualConsumerBase = actualConsumerBase;
+        entry.getAssets()
+                .forEach(a -> {
+                    String contextKey = entry.getId() + "::" + a;
+                    monitor.debug(() -> "[DataExchangeQueueManager] Storing in ExchangeContext for Entry ID " + entry.getId() + ": Key=" + contextKey +
+                            ", ProviderBase=" + providerBase +
+                            ", ConsumerBase=" + finalActualConsumerBase);
+                    ExchangeContext.put(contextKey, providerBase, finalActualConsumerBase);
+                    // Verification step
+                    try {
+                        String retrievedProvider = ExchangeContext.provider(contextKey);
+                        String retrievedConsumer = ExchangeContext.consumer(contextKey);
+                        monitor.debug(() -> "[DataExchangeQueueManager] VERIFIED ExchangeContext for Key=" + contextKey +
+                                ", Retrieved ProviderBase=" + retrievedProvider + ", Retrieved ConsumerBase=" + retrievedConsumer);
+                        if (!finalActualConsumerBase.equals(retrievedConsumer)) {
+                            monitor.severe(() -> "[DataExchangeQueueManager] !!! CONSUMER MISMATCH for Key=" + contextKey + " !!! Expected ConsumerBase " + finalActualConsumerBase +
+                                    " but got " + retrievedConsumer + " from ExchangeContext.");
+                        }
+                        if (!providerBase.equals(retrievedProvider)) {
+                            monitor.severe(() -> "[DataExchangeQueueManager] !!! PROVIDER MISMATCH for Key=" + contextKey + " !!! Expected ProviderBase " + providerBase +
+                                    " but got " + retrievedProvider + " from ExchangeContext.");
+                        }
+                    } catch (Exception e) {
+                        monitor.severe(() -> "[DataExchangeQueueManager] !!! ERROR VERIFYING ExchangeContext for Key=" + contextKey + " !!!: " + e.getMessage());
+                    }
+                });
+    }
+
     private String guessTrusteePortFromProvider(Participant provider) {
         if (provider != null && provider.getUrl() != null) {
             try {
@@ -175,72 +465,161 @@ public class DataExchangeQueueManager {
     }
 
 
+    private Partition partitionOf(Set<String> assets) {
+        // the hash of a set does not depend on the order of its elements
+        return partitions[Math.floorMod(assets.hashCode(), partitions.length)];
+    }
+
+    /**
+     * Sweeps the whole queue, including entries of other replicas of a shared store.
+     */
     public void processEntries() {
-        Iterator<DataExchangeEntry> iterator = queue.iterator();
-        while (iterator.hasNext()) {
-            DataExchangeEntry entry = iterator.next();
-            switch (entry.getState()) {
-                case NOT_READY:
-                    if (hasTimedOut(entry)) {
-                        entry.setState(DataExchangeState.FAILED);
-                        monitor.warning("Entry " + entry.getId() + " has FAILED due to timeout (stuck in NOT_READY).");
-                    }
-                    break;
-                case READY:
-                    // Stays in READY until manually triggered or by another process
-                    break;
-                case IN_PROGRESS:
-                    monitor.info("Data exchange IN_PROGRESS for entry: " + entry.getId());
-                    break;
-                case COMPLETED:
-                    monitor.info("Data exchange COMPLETED for entry: " + entry.getId());
-                    sendCompletionNotification(entry);
-                    iterator.remove();
-                    break;
-                case FAILED:
-                    monitor.warning("Entry FAILED: " + entry.getId());
-                    iterator.remove();
-                    break;
-                default:
-                    monitor.warning("Entry " + entry.getId() + " in unknown state: " + entry.getState());
-                    break;
+        store.findAll().forEach(this::process);
+    }
+
+    /**
+     * Sweeps only the partitions of the given asset lists, each once.
+     */
+    public void processEntries(Collection<List<String>> assetLists) {
+        Set<Partition> swept = new HashSet<>();
+        for (List<String> assets : assetLists) {
+            Partition partition = partitionOf(new HashSet<>(assets));
+            if (swept.add(partition)) {
+                sweep(partition);
             }
         }
     }
 
+    /**
+     * Sweeps the entries of a partition with one lookup of all its asset sets, so a sweep costs
+     * one query however many exchanges the partition holds. Asset sets left without entries are
+     * forgotten, after a second lookup of only those sets under the lock of the partition.
+     */
+    private void sweep(Partition partition) {
+        Set<Set<String>> assetSets = new HashSet<>(partition.assetSets);
+        if (assetSets.isEmpty()) {
+            return;
+        }
+        List<DataExchangeEntry> entries = store.findByAssetSets(assetSets);
+        Set<Set<String>> empty = new HashSet<>(assetSets);
+        entries.forEach(entry -> empty.remove(new HashSet<>(entry.getAssets())));
+        if (!empty.isEmpty()) {
+            // checked again under the lock, a notification may just be adding an entry
+            synchronized (partition) {
+                Set<Set<String>> stillEmpty = new HashSet<>(empty);
+                store.findByAssetSets(empty).forEach(entry -> stillEmpty.remove(new HashSet<>(entry.getAssets())));
+                partition.assetSets.removeAll(stillEmpty);
+            }
+        }
+        entries.forEach(this::process);
+    }
+
+    private void process(DataExchangeEntry entry) {
+        switch (entry.getState()) {
+            case NOT_READY:
+                if (hasTimedOut(entry)) {
+                    LocalDateTime notReadySince = entry.getLastUpdatedAt();
+                    if (entry.transitionTo(DataExchangeState.FAILED) && store.update(entry)) {
+                        timedOutEntries.increment();
+                        transitioned(entry, DataExchangeState.NOT_READY, notReadySince);
+                        monitor.warning(() -> "Entry " + entry.getId() + " has FAILED due to timeout (stuck in NOT_READY).");
+                    }
+                }
+                break;
+            case READY:
+                // Stays in READY until manually triggered or by another process
+                break;
+            case IN_PROGRESS:
+                monitor.debug(() -> "Data exchange IN_PROGRESS for entry: " + entry.getId());
+                break;
+            case COMPLETED:
+            case FAILED:
+                finish(entry);
+                break;
+            default:
+                monitor.warning(() -> "Entry " + entry.getId() + " in unknown state: " + entry.getState());
+                break;
+        }
+    }
+
+    /**
+     * Removes an entry in a final state. Only the caller whose delete succeeds, on this or on
+     * another replica, runs the side effects, so the participants are notified exactly once.
+     */
+    private void finish(DataExchangeEntry entry) {
+        if (!store.delete(entry.getId())) {
+            return;
+        }
+        recordTimeInState(entry.getState(), entry.getLastUpdatedAt());
+        if (entry.getState() == DataExchangeState.COMPLETED) {
+            monitor.info(() -> "Data exchange COMPLETED for entry: " + entry.getId());
+            sendCompletionNotification(entry);
+        } else {
+            monitor.warning(() -> "Entry FAILED: " + entry.getId());
+        }
+        ExchangeContext.removeEntry(entry.getId());
+    }
+
+    private Map<String, Integer> countEntriesByState() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (DataExchangeState state : DataExchangeState.values()) {
+            counts.put(state.name(), 0);
+        }
+        store.countByState().forEach((state, count) -> counts.put(state.name(), count));
+        return counts;
+    }
+
+    private void transitioned(DataExchangeEntry entry, DataExchangeState previousState, LocalDateTime previousStateSince) {
+        recordTimeInState(previousState, previousStateSince);
+        events.publish(entry, previousState);
+    }
+
+    private void recordTimeInState(DataExchangeState state, LocalDateTime since) {
+        metrics.histogram("trustee_entry_state_seconds", "Time data exchange entries spent in a state before leaving it.", "state", state.name())
+                .record(Duration.between(since, LocalDateTime.now()));
+    }
+
     private boolean hasTimedOut(DataExchangeEntry entry) {
         Duration duration = Duration.between(entry.getLastUpdatedAt(), LocalDateTime.now());
         return duration.compareTo(TIMEOUT_DURATION) > 0;
     }
 
     public boolean updateEntryStateManually(String entryId, DataExchangeState newState) {
-        for (DataExchangeEntry entry : queue) {
-            if (entry.getId().equals(entryId)) {
-                if ( (entry.getState() == DataExchangeState.READY || entry.getState() == DataExchangeState.IN_PROGRESS) ||
-                        newState == DataExchangeState.FAILED) {
-                    entry.setState(newState);
-                    monitor.info("State manually updated to " + newState + " for entry: " + entry.getId());
-                    if(newState == DataExchangeState.COMPLETED){
-                        processEntries();
-                    } else if (newState == DataExchangeState.FAILED) {
-                        processEntries();
-                    }
-                    return true;
-                } else {
-                    monitor.warning("Cannot manually update entry " + entryId + " from state " + entry.getState() + " to " + newState);
-                    return false;
-                }
+        while (true) {
+            DataExchangeEntry entry = store.findById(entryId);
+            if (entry == null) {
+                monitor.warning(() -> "Entry " + entryId + " not found for manual state update.");
+                return false;
+            }
+            DataExchangeState previousState = entry.getState();
+            if (previousState == newState) {
+                // a repeated update, e.g. a retry of the client, has nothing left to do
+                return true;
+            }
+            LocalDateTime previousStateSince = entry.getLastUpdatedAt();
+            if (!entry.transitionTo(newState)) {
+                monitor.warning(() -> "Cannot manually update entry " + entryId + " from state " + previousState + " to " + newState);
+                return false;
+            }
+            // compare-and-set: fails if another update changed the entry since it was read
+            if (!store.update(entry)) {
+                monitor.debug(() -> "Entry " + entryId + " was modified concurrently, retrying manual state update");
+                continue;
+            }
+            transitioned(entry, previousState, previousStateSince);
+            monitor.info(() -> "State manually updated to " + newState + " for entry: " + entry.getId());
+            if (newState.isFinal()) {
+                finish(entry);
             }
+            return true;
         }
-        monitor.warning("Entry " + entryId + " not found for manual state update.");
-        return false;
     }
 
     public void sendCompletionNotification(DataExchangeEntry entry){
         Participant provider = entry.getProvider();
         Participant consumer = entry.getConsumer();
         if (provider == null || consumer == null) {
-            monitor.warning("Cannot send completion notification for entry " + entry.getId() + " due to missing provider/consumer details.");
+            monitor.warning(() -> "Cannot send completion notification for entry " + entry.getId() + " due to missing provider/consumer details.");
             return;
         }
         String notificationMessage = "Data exchange has been completed for assets: " + String.join(", ", entry.getAssets()) + " (Entry ID: " + entry.getId() + ")";
@@ -259,10 +638,10 @@ public class DataExchangeQueueManager {
                         .POST(HttpRequest.BodyPublishers.ofString(requestBody))
                         .build();
 
-                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                        .thenAccept(response -> monitor.info("Completion Notification sent to provider: " + provider.getName() + "; Response: " + response.statusCode() + " " + response.body()))
+                peerClient.sendAsync("notify-completion", request)
+                        .thenAccept(response -> monitor.info(() -> "Completion Notification sent to provider: " + provider.getName() + "; Response: " + response.statusCode() + " " + response.body()))
                         .exceptionally(ex -> {
-                            monitor.warning("Failed to send completion notification to provider " + provider.getName() + ": " + ex.getMessage());
+                            monitor.warning(() -> "Failed to send completion notification to provider " + provider.getName() + ": " + ex.getMessage());
                             return null;
                         });
             }
@@ -278,7 +657,7 @@ public class DataExchangeQueueManager {
                 } else if (reportedConsumerApiEndpoint != null) {
                     actualConsumerNotificationUrl = reportedConsumerApiEndpoint.replace("/api/trusted-participants", "") + "/api/trusted-participants/notify-completion";
                 } else {
-                    monitor.warning("Consumer URL for notification is null for entry " + entry.getId());
+                    monitor.warning(() -> "Consumer URL for notification is null for entry " + entry.getId());
                     return;
                 }
 
@@ -292,15 +671,15 @@ public class DataExchangeQueueManager {
                         .header("Content-Type", "application/json")
                         .POST(HttpRequest.BodyPublishers.ofString(requestBody))
                         .build();
-                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                        .thenAccept(response -> monitor.info("Completion Notification sent to consumer: " + consumer.getName() + "; Response: " + response.statusCode() + " " + response.body()))
+                peerClient.sendAsync("notify-completion", request)
+                        .thenAccept(response -> monitor.info(() -> "Completion Notification sent to consumer: " + consumer.getName() + "; Response: " + response.statusCode() + " " + response.body()))
                         .exceptionally(ex -> {
-                            monitor.warning("Failed to send completion notification to consumer " + consumer.getName() + ": " + ex.getMessage());
+                            monitor.warning(() -> "Failed to send completion notification to consumer " + consumer.getName() + ": " + ex.getMessage());
                             return null;
                         });
             }
         }catch (Exception e){
-            monitor.warning("Failed to prepare or send completion notifications for entry " + entry.getId() + ": " + e.getMessage());
+            monitor.warning(() -> "Failed to prepare or send completion notifications for entry " + entry.getId() + ": " + e.getMessage());
         }
     }
 
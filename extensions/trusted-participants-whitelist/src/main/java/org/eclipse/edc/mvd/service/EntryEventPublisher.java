@@ -0,0 +1,90 @@
+package org.eclipse.edc.mvd.service;
+
+import org.eclipse.edc.mvd.model.DataExchangeEntry;
+import org.eclipse.edc.mvd.model.DataExchangeState;
+import org.eclipse.edc.mvd.model.EntryStateEvent;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Hands the state transitions of the entries of this trustee instance to subscribers. Every
+ * subscriber has a bounded buffer: publishing never blocks, a subscriber that does not keep
+ * up loses its oldest events and is told how many it lost.
+ */
+public class EntryEventPublisher {
+
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public Subscription subscribe(Predicate<EntryStateEvent> filter, int bufferSize) {
+        Subscription subscription = new Subscription(filter, bufferSize);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Publishes the current state of the entry, reached from the given previous state.
+     */
+    public void publish(DataExchangeEntry entry, DataExchangeState previousState) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        EntryStateEvent event = new EntryStateEvent(nextSequence.getAndIncrement(), entry.getId(), previousState, entry.getState(),
+                entry.getProvider(), entry.getConsumer(), entry.getAssets(), LocalDateTime.now().toString());
+        for (Subscription subscription : subscriptions) {
+            if (subscription.filter.test(event)) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    public class Subscription implements AutoCloseable {
+        private final Predicate<EntryStateEvent> filter;
+        private final ArrayBlockingQueue<EntryStateEvent> buffer;
+        private final AtomicLong dropped = new AtomicLong();
+
+        private Subscription(Predicate<EntryStateEvent> filter, int bufferSize) {
+            this.filter = filter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private void offer(EntryStateEvent event) {
+            while (!buffer.offer(event)) {
+                if (buffer.poll() != null) {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * @return the oldest buffered event, or null if none arrived within the timeout.
+         */
+        public EntryStateEvent poll(long timeout, TimeUnit unit) throws InterruptedException {
+            return buffer.poll(timeout, unit);
+        }
+
+        /**
+         * @return the number of events dropped since the last call.
+         */
+        public long takeDropped() {
+            return dropped.getAndSet(0);
+        }
+
+        @Override
+        public void close() {
+            subscriptions.remove(this);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.eclipse.edc.mvd.service;
+
+import org.eclipse.edc.mvd.metrics.MetricsRegistry;
+import org.eclipse.edc.mvd.util.Deadline;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the notifications of the negotiation flow to the trustee in the background, so a
+ * negotiation does not wait for the trustee. Connection errors and 429 or 5xx responses are
+ * retried with exponential backoff, unless the circuit of the peer is open: then the caller
+ * is told at once, so it can fail over to another peer, or the deadline of the notification
+ * has passed. Notifications should carry an idempotency key, so a retry
+ * of a notification the trustee already queued returns its entry instead of queueing it twice.
+ * <p>
+ * Pending notifications are kept in memory only and are lost if the connector stops.
+ */
+public class NotificationOutbox {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(500);
+    private static final int MAX_BACKOFF_SHIFT = 10;
+
+    private final PeerClient peerClient;
+    private final Monitor monitor;
+    private final MetricsRegistry metrics;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trustee-notification-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public NotificationOutbox(PeerClient peerClient, Monitor monitor, MetricsRegistry metrics) {
+        this(peerClient, monitor, metrics, DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF);
+    }
+
+    public NotificationOutbox(PeerClient peerClient, Monitor monitor, MetricsRegistry metrics, int maxAttempts, Duration initialBackoff) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Attempts must be positive: " + maxAttempts);
+        }
+        this.peerClient = peerClient;
+        this.monitor = monitor;
+        this.metrics = metrics;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        metrics.gauge("trustee_outbox_pending", "Notifications waiting for delivery or a retry.", pending::get);
+    }
+
+    /**
+     * Sends the request without waiting for it.
+     *
+     * @return completes with the last response once the request was delivered or given up on,
+     *         or exceptionally if the last attempt failed to connect.
+     */
+    public CompletableFuture<HttpResponse<String>> send(String hop, HttpRequest request) {
+        pending.incrementAndGet();
+        CompletableFuture<HttpResponse<String>> delivery = new CompletableFuture<>();
+        delivery.whenComplete((response, error) -> pending.decrementAndGet());
+        attempt(hop, request, 1, delivery);
+        return delivery;
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    private void attempt(String hop, HttpRequest request, int attempt, CompletableFuture<HttpResponse<String>> delivery) {
+        peerClient.sendAsync(hop, request).whenComplete((response, error) -> {
+            if (error == null && !isRetryable(response.statusCode())) {
+                finished(hop, response.statusCode() < 400 ? "delivered" : "rejected");
+                delivery.complete(response);
+                return;
+            }
+            String failure = error != null ? error.getMessage() : "status " + response.statusCode();
+            if (attempt >= maxAttempts || error instanceof PeerClient.CircuitOpenException
+                    || error instanceof Deadline.DeadlineExceededException) {
+                finished(hop, "failed");
+                monitor.warning(() -> "Giving up on " + hop + " to " + request.uri() + " after " + attempt + " attempts: " + failure);
+                if (error != null) {
+                    delivery.completeExceptionally(error);
+                } else {
+                    delivery.complete(response);
+                }
+                return;
+            }
+            long backoff = initialBackoffMillis << Math.min(attempt - 1, MAX_BACKOFF_SHIFT);
+            metrics.counter("trustee_outbox_retries_total", "Notification deliveries retried.", "hop", hop).increment();
+            monitor.debug(() -> "Retrying " + hop + " to " + request.uri() + " in " + backoff + " ms after attempt " + attempt + ": " + failure);
+            retries.schedule(() -> attempt(hop, request, attempt + 1, delivery), backoff, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    private void finished(String hop, String outcome) {
+        metrics.counter("trustee_outbox_deliveries_total", "Notifications delivered or given up on, by outcome.", "hop", hop, "outcome", outcome)
+                .increment();
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status >= 500;
+    }
+}
@@ -0,0 +1,10 @@
+package org.eclipse.edc.mvd.service;
+
+/**
+ * Outcome of a notification handed to the {@link DataExchangeQueueManager}.
+ *
+ * @param entryId   The entry the notification was added to.
+ * @param duplicate True if the notification repeated an earlier one with the same idempotency key.
+ */
+public record NotificationResult(String entryId, boolean duplicate) {
+}
@@ -0,0 +1,170 @@
+package org.eclipse.edc.mvd.service;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * One circuit breaker per peer host, so calls to a connector that is down fail at once instead
+ * of each waiting for the connect timeout. A circuit opens after a number of consecutive
+ * failures and rejects calls until the open duration has passed; then a single trial call is
+ * let through, which closes the circuit again if it succeeds.
+ * <p>
+ * Like the tracer, the circuits are shared by the whole extension through {@link #getInstance()},
+ * so the controller, the queue manager and the outbox see the same state of a peer.
+ */
+public class PeerCircuitBreakers {
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final PeerCircuitBreakers INSTANCE = new PeerCircuitBreakers();
+
+    private static final class Circuit {
+        private State state = State.CLOSED;
+        private int failures;
+        private long openUntil;
+    }
+
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private volatile int failureThreshold;
+    private volatile long openNanos;
+
+    public PeerCircuitBreakers() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_DURATION, System::nanoTime);
+    }
+
+    public PeerCircuitBreakers(int failureThreshold, Duration openDuration, LongSupplier clock) {
+        this.clock = clock;
+        configure(failureThreshold, openDuration);
+    }
+
+    public static PeerCircuitBreakers getInstance() {
+        return INSTANCE;
+    }
+
+    /** replace the thresholds, called once while the extension initializes */
+    public void configure(int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * @return true if a call to the host of the URI may be made. Once the open duration of an
+     *         open circuit has passed, only the first caller gets true, as the trial call.
+     */
+    public boolean tryAcquire(URI uri) {
+        Circuit circuit = circuit(uri);
+        synchronized (circuit) {
+            switch (circuit.state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (clock.getAsLong() - circuit.openUntil < 0) {
+                        return false;
+                    }
+                    circuit.state = State.HALF_OPEN;
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    public void onSuccess(URI uri) {
+        Circuit circuit = circuit(uri);
+        synchronized (circuit) {
+            circuit.state = State.CLOSED;
+            circuit.failures = 0;
+        }
+    }
+
+    /**
+     * @return true if the failure opened the circuit.
+     */
+    public boolean onFailure(URI uri) {
+        Circuit circuit = circuit(uri);
+        synchronized (circuit) {
+            circuit.failures++;
+            if (circuit.state == State.CLOSED && circuit.failures < failureThreshold) {
+                return false;
+            }
+            // a failed health probe of an open circuit keeps it open for another period
+            boolean opened = circuit.state != State.OPEN;
+            circuit.state = State.OPEN;
+            circuit.openUntil = clock.getAsLong() + openNanos;
+            return opened;
+        }
+    }
+
+    /**
+     * @return true if calls to the peer at the URL are currently rejected, false for unknown
+     *         peers and for invalid URLs, which fail on their own.
+     */
+    public boolean isOpen(String url) {
+        String host;
+        try {
+            host = host(URI.create(url));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        Circuit circuit = circuits.get(host);
+        if (circuit == null) {
+            return false;
+        }
+        synchronized (circuit) {
+            return circuit.state == State.HALF_OPEN
+                    || circuit.state == State.OPEN && clock.getAsLong() - circuit.openUntil < 0;
+        }
+    }
+
+    public State getState(URI uri) {
+        Circuit circuit = circuits.get(host(uri));
+        if (circuit == null) {
+            return State.CLOSED;
+        }
+        synchronized (circuit) {
+            return circuit.state;
+        }
+    }
+
+    /**
+     * @return the number of known peers per circuit state.
+     */
+    public Map<State, Integer> countByState() {
+        Map<State, Integer> counts = new EnumMap<>(State.class);
+        for (State state : State.values()) {
+            counts.put(state, 0);
+        }
+        for (Circuit circuit : circuits.values()) {
+            synchronized (circuit) {
+                counts.merge(circuit.state, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    private Circuit circuit(URI uri) {
+        return circuits.computeIfAbsent(host(uri), h -> new Circuit());
+    }
+
+    private static String host(URI uri) {
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+}
@@ -0,0 +1,161 @@
+package org.eclipse.edc.mvd.service;
+
+import org.eclipse.edc.mvd.metrics.MetricsRegistry;
+import org.eclipse.edc.mvd.tracing.Tracer;
+import org.eclipse.edc.mvd.util.Deadline;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends the requests of one hop of the trustee protocol to another connector, e.g.
+ * "receive-negotiation" or "notify", and records the latency of every request per hop.
+ * Every request is traced in a CLIENT span whose context is sent in the {@code traceparent}
+ * header, so the receiving connector continues the same trace.
+ * <p>
+ * Calls to a host whose circuit is open fail at once with a {@link CircuitOpenException};
+ * connection errors and 5xx responses count as failures of the host.
+ * <p>
+ * The {@link Deadline} of a request, given in its header or current for the calling thread,
+ * is sent along and bounds the timeout of the request. Calls whose deadline has passed fail at
+ * once with a {@link Deadline.DeadlineExceededException}.
+ */
+public class PeerClient {
+
+    public static final String REQUEST_SECONDS = "trustee_http_client_request_seconds";
+    public static final String DEADLINE_EXCEEDED = "trustee_deadline_exceeded_total";
+
+    private final HttpClient httpClient;
+    private final MetricsRegistry metrics;
+    private final Tracer tracer;
+    private final PeerCircuitBreakers circuitBreakers;
+
+    /**
+     * Thrown instead of calling a peer whose circuit is open.
+     */
+    public static class CircuitOpenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public CircuitOpenException(URI uri) {
+            super("Circuit open for " + uri.getScheme() + "://" + uri.getAuthority());
+        }
+    }
+
+    public PeerClient(HttpClient httpClient, MetricsRegistry metrics) {
+        this(httpClient, metrics, Tracer.getInstance());
+    }
+
+    public PeerClient(HttpClient httpClient, MetricsRegistry metrics, Tracer tracer) {
+        this(httpClient, metrics, tracer, PeerCircuitBreakers.getInstance());
+    }
+
+    public PeerClient(HttpClient httpClient, MetricsRegistry metrics, Tracer tracer, PeerCircuitBreakers circuitBreakers) {
+        this.httpClient = httpClient;
+        this.metrics = metrics;
+        this.tracer = tracer;
+        this.circuitBreakers = circuitBreakers;
+        metrics.gauges("trustee_peer_circuits", "Known peer hosts per circuit state.", "state", () -> {
+            Map<String, Integer> counts = new HashMap<>();
+            circuitBreakers.countByState().forEach((state, count) -> counts.put(state.toString(), count));
+            return counts;
+        });
+    }
+
+    public HttpResponse<String> send(String hop, HttpRequest request) throws IOException, InterruptedException {
+        Deadline deadline = deadline(request);
+        if (deadline != null && deadline.isExpired()) {
+            throw expired(hop, request, deadline);
+        }
+        if (!circuitBreakers.tryAcquire(request.uri())) {
+            throw rejected(hop, request);
+        }
+        Tracer.ActiveSpan span = tracer.startClientSpan(hop).attribute("http.url", request.uri().toString());
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(traced(request, span, deadline), HttpResponse.BodyHandlers.ofString());
+            record(hop, request.uri(), span, response, null, start);
+            return response;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            record(hop, request.uri(), span, null, e, start);
+            throw e;
+        }
+    }
+
+    public CompletableFuture<HttpResponse<String>> sendAsync(String hop, HttpRequest request) {
+        Deadline deadline = deadline(request);
+        if (deadline != null && deadline.isExpired()) {
+            return CompletableFuture.failedFuture(expired(hop, request, deadline));
+        }
+        if (!circuitBreakers.tryAcquire(request.uri())) {
+            return CompletableFuture.failedFuture(rejected(hop, request));
+        }
+        Tracer.ActiveSpan span = tracer.startClientSpan(hop).attribute("http.url", request.uri().toString());
+        long start = System.nanoTime();
+        try {
+            return httpClient.sendAsync(traced(request, span, deadline), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> record(hop, request.uri(), span, response, error, start));
+        } catch (RuntimeException e) {
+            // the call was admitted by the circuit, so it must end there too, or a half-open circuit stays blocked
+            record(hop, request.uri(), span, null, e, start);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Deadline deadline(HttpRequest request) {
+        return request.headers().firstValue(Deadline.HEADER).map(Deadline::parse).orElseGet(Deadline::current);
+    }
+
+    private static HttpRequest traced(HttpRequest request, Tracer.ActiveSpan span, Deadline deadline) {
+        HttpRequest.Builder traced = HttpRequest.newBuilder(request,
+                        (name, value) -> !Tracer.TRACEPARENT.equalsIgnoreCase(name) && !Deadline.HEADER.equalsIgnoreCase(name))
+                .header(Tracer.TRACEPARENT, span.traceparent());
+        if (deadline != null) {
+            traced.header(Deadline.HEADER, deadline.header());
+            Duration remaining = deadline.remaining();
+            if (!remaining.isZero() && request.timeout().map(timeout -> timeout.compareTo(remaining) > 0).orElse(true)) {
+                traced.timeout(remaining);
+            }
+        }
+        return traced.build();
+    }
+
+    private Deadline.DeadlineExceededException expired(String hop, HttpRequest request, Deadline deadline) {
+        metrics.counter(DEADLINE_EXCEEDED, "Work dropped because the deadline of its request had passed.", "step", hop).increment();
+        return new Deadline.DeadlineExceededException("Deadline " + deadline + " passed before calling " + request.uri());
+    }
+
+    private CircuitOpenException rejected(String hop, HttpRequest request) {
+        metrics.counter("trustee_http_client_rejected_total", "Requests not sent because the circuit of the peer was open.", "hop", hop)
+                .increment();
+        return new CircuitOpenException(request.uri());
+    }
+
+    private void record(String hop, URI uri, Tracer.ActiveSpan span, HttpResponse<?> response, Throwable error, long start) {
+        if (error != null || response.statusCode() >= 500) {
+            if (circuitBreakers.onFailure(uri)) {
+                metrics.counter("trustee_peer_circuits_opened_total", "Circuits opened after repeated failures of a peer.").increment();
+            }
+        } else {
+            circuitBreakers.onSuccess(uri);
+        }
+        String status = error != null ? "error" : status(response);
+        metrics.histogram(REQUEST_SECONDS, "Latency of requests to other connectors per protocol hop.", "hop", hop, "status", status)
+                .recordSince(start);
+        if (error != null) {
+            span.attribute("error", error.getMessage()).end("error");
+        } else {
+            span.end(String.valueOf(response.statusCode()));
+        }
+    }
+
+    private static String status(HttpResponse<?> response) {
+        return response == null ? "error" : response.statusCode() / 100 + "xx";
+    }
+}
@@ -0,0 +1,92 @@
+package org.eclipse.edc.mvd.service;
+
+import org.eclipse.edc.mvd.model.Participant;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Calls the {@code /health} endpoint of the given peers in the background and reports the
+ * outcome to their circuit breakers. A trustee that went down is thereby known before a
+ * negotiation picks it, and an open circuit closes as soon as the trustee is back.
+ * Peers on the same host are probed once.
+ */
+public class PeerHealthProber implements AutoCloseable {
+
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+
+    private final HttpClient httpClient;
+    private final PeerCircuitBreakers circuitBreakers;
+    private final Supplier<Collection<Participant>> peers;
+    private final Monitor monitor;
+    private final ScheduledExecutorService probes = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trustee-health-prober");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PeerHealthProber(HttpClient httpClient, PeerCircuitBreakers circuitBreakers,
+                            Supplier<Collection<Participant>> peers, Monitor monitor) {
+        this.httpClient = httpClient;
+        this.circuitBreakers = circuitBreakers;
+        this.peers = peers;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Probes all peers every interval; each probe has the interval as its timeout.
+     */
+    public void start(Duration interval) {
+        probes.scheduleWithFixedDelay(() -> probeAll(interval), 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Probes every peer once and waits for the answers.
+     */
+    public void probeAll(Duration timeout) {
+        Map<String, URI> hosts = new LinkedHashMap<>();
+        for (Participant peer : peers.get()) {
+            try {
+                URI health = URI.create(peer.getUrl() + "/health");
+                hosts.putIfAbsent(health.getScheme() + "://" + health.getAuthority(), health);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                monitor.debug(() -> "Not probing " + peer.getName() + ", invalid URL: " + peer.getUrl());
+            }
+        }
+        hosts.values().stream()
+                .map(health -> httpClient.sendAsync(HttpRequest.newBuilder(health).timeout(timeout).GET().build(),
+                                HttpResponse.BodyHandlers.discarding())
+                        .handle((response, error) -> {
+                            report(health, response, error);
+                            return null;
+                        }))
+                .toList()
+                .forEach(CompletableFuture::join);
+    }
+
+    private void report(URI health, HttpResponse<?> response, Throwable error) {
+        if (error == null && response.statusCode() < 500) {
+            circuitBreakers.onSuccess(health);
+        } else if (circuitBreakers.onFailure(health)) {
+            monitor.warning("Circuit opened for " + health.getAuthority() + ", health probe failed: "
+                    + (error != null ? error.getMessage() : "status " + response.statusCode()));
+        }
+    }
+
+    @Override
+    public void close() {
+        probes.shutdownNow();
+    }
+}
@@ -0,0 +1,20 @@
+package org.eclipse.edc.mvd.service;
+
+/**
+ * Limits of the queue of the {@link DataExchangeQueueManager}. A notification that would
+ * create a new entry beyond a limit is rejected; a notification completing an open entry is
+ * always accepted, as it does not grow the queue.
+ *
+ * @param maxEntries  The maximum number of entries in the queue, 0 for no limit.
+ * @param maxNotReady The maximum number of entries waiting for their second notification, 0 for no limit.
+ */
+public record QueueLimits(int maxEntries, int maxNotReady) {
+
+    public static final QueueLimits DEFAULT = new QueueLimits(0, 0);
+
+    public QueueLimits {
+        if (maxEntries < 0 || maxNotReady < 0) {
+            throw new IllegalArgumentException("Queue limits must not be negative");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.eclipse.edc.mvd.store;
+
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Shared connection handling of the JDBC stores. Every operation runs on its own
+ * connection, so a pooling {@link JdbcConnectionFactory} should be used in production.
+ */
+abstract class AbstractJdbcStore {
+
+    @FunctionalInterface
+    interface SqlFunction<T> {
+        T apply(Connection connection) throws SQLException;
+    }
+
+    private final JdbcConnectionFactory connectionFactory;
+
+    AbstractJdbcStore(JdbcConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    <T> T execute(SqlFunction<T> function) {
+        try (Connection connection = connectionFactory.create()) {
+            return function.apply(connection);
+        } catch (SQLException e) {
+            throw new EdcPersistenceException(e);
+        }
+    }
+
+    void createSchema(String... statements) {
+        execute(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : statements) {
+                    statement.execute(sql);
+                }
+            }
+            return null;
+        });
+    }
+}
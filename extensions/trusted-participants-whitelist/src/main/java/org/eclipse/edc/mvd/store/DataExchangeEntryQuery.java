@@ -0,0 +1,93 @@
+package org.eclipse.edc.mvd.store;
+
+import org.eclipse.edc.mvd.model.DataExchangeEntry;
+import org.eclipse.edc.mvd.model.DataExchangeState;
+import org.eclipse.edc.mvd.model.Participant;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Set;
+
+/**
+ * Filter and page of a {@link DataExchangeEntryStore#find} call. Entries are ordered by
+ * creation time and id; a page continues after the position its cursor was taken from.
+ *
+ * @param states      Only entries in one of these states, all states if null or empty.
+ * @param participant Only entries whose provider or consumer has this id or name.
+ * @param from        Only entries created at or after this time.
+ * @param to          Only entries created before this time.
+ * @param after       Only entries after this position, i.e. the last entry of the previous page.
+ * @param limit       Maximum number of entries, 0 for no limit.
+ */
+public record DataExchangeEntryQuery(Set<DataExchangeState> states, String participant, LocalDateTime from,
+                                     LocalDateTime to, Position after, int limit) {
+
+    public static final Comparator<DataExchangeEntry> ORDER =
+            Comparator.comparing(DataExchangeEntry::getCreatedAt).thenComparing(DataExchangeEntry::getId);
+
+    public static final DataExchangeEntryQuery ALL = new DataExchangeEntryQuery(null, null, null, null, null, 0);
+
+    public DataExchangeEntryQuery {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        }
+    }
+
+    /**
+     * @return true if the entry passes the filters and lies after the position of the query.
+     */
+    public boolean matches(DataExchangeEntry entry) {
+        if (states != null && !states.isEmpty() && !states.contains(entry.getState())) {
+            return false;
+        }
+        if (participant != null && !isParticipant(entry.getProvider()) && !isParticipant(entry.getConsumer())) {
+            return false;
+        }
+        if (from != null && entry.getCreatedAt().isBefore(from)) {
+            return false;
+        }
+        if (to != null && !entry.getCreatedAt().isBefore(to)) {
+            return false;
+        }
+        return after == null || after.isBefore(entry);
+    }
+
+    private boolean isParticipant(Participant candidate) {
+        return candidate != null && (participant.equals(candidate.getId()) || participant.equals(candidate.getName()));
+    }
+
+    /**
+     * Position of an entry in the {@link #ORDER} of the entries, exchanged with clients as an
+     * opaque cursor.
+     */
+    public record Position(LocalDateTime createdAt, String id) {
+
+        public static Position of(DataExchangeEntry entry) {
+            return new Position(entry.getCreatedAt(), entry.getId());
+        }
+
+        /**
+         * @throws IllegalArgumentException if the cursor was not produced by {@link #cursor()}.
+         */
+        public static Position parse(String cursor) {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new Position(LocalDateTime.parse(position.substring(0, separator)), position.substring(separator + 1));
+        }
+
+        public String cursor() {
+            String position = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public boolean isBefore(DataExchangeEntry entry) {
+            int comparison = createdAt.compareTo(entry.getCreatedAt());
+            return comparison < 0 || comparison == 0 && id.compareTo(entry.getId()) < 0;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.eclipse.edc.mvd.store;
+
+import org.eclipse.edc.mvd.model.DataExchangeEntry;
+import org.eclipse.edc.mvd.model.DataExchangeState;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Backing store of the {@link org.eclipse.edc.mvd.service.DataExchangeQueueManager}.
+ * Entries are handed out as copies and written back with optimistic versioning, so
+ * several trustee replicas can work on the same entries.
+ */
+public interface DataExchangeEntryStore {
+
+    List<DataExchangeEntry> findAll();
+
+    /**
+     * @return copies of the entries matching the query, in {@link DataExchangeEntryQuery#ORDER}.
+     */
+    default List<DataExchangeEntry> find(DataExchangeEntryQuery query) {
+        Stream<DataExchangeEntry> matching = findAll().stream().filter(query::matches).sorted(DataExchangeEntryQuery.ORDER);
+        return (query.limit() > 0 ? matching.limit(query.limit()) : matching).toList();
+    }
+
+    /**
+     * @return copies of the entries for exactly these assets, in any order.
+     */
+    default List<DataExchangeEntry> findByAssets(Set<String> assets) {
+        return findAll().stream().filter(entry -> new HashSet<>(entry.getAssets()).equals(assets)).toList();
+    }
+
+    /**
+     * Looks up the entries of many asset sets at once, e.g. those of a partition of the queue.
+     *
+     * @return copies of the entries for exactly one of these asset sets, in any order.
+     */
+    default List<DataExchangeEntry> findByAssetSets(Collection<Set<String>> assetSets) {
+        Set<Set<String>> wanted = new HashSet<>(assetSets);
+        return findAll().stream().filter(entry -> wanted.contains(new HashSet<>(entry.getAssets()))).toList();
+    }
+
+    /**
+     * @return the number of entries per state, states without entries are missing.
+     */
+    default Map<DataExchangeState, Integer> countByState() {
+        Map<DataExchangeState, Integer> counts = new EnumMap<>(DataExchangeState.class);
+        findAll().forEach(entry -> counts.merge(entry.getState(), 1, Integer::sum));
+        return counts;
+    }
+
+    /**
+     * @return a copy of the stored entry, or null if the entry is unknown.
+     */
+    DataExchangeEntry findById(String id);
+
+    void create(DataExchangeEntry entry);
+
+    /**
+     * Writes the entry back if nobody else updated it since it was read, i.e. the stored
+     * version still equals {@link DataExchangeEntry#getVersion()}. On success the version
+     * of the given entry is incremented.
+     *
+     * @return true if the entry was written, false if it was modified concurrently or removed.
+     */
+    boolean update(DataExchangeEntry entry);
+
+    /**
+     * @return true if the entry was removed by this call.
+     */
+    boolean delete(String id);
+}
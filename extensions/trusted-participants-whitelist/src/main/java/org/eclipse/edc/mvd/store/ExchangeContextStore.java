@@ -0,0 +1,35 @@
+package org.eclipse.edc.mvd.store;
+
+import java.util.List;
+
+/**
+ * Backing store of the {@link org.eclipse.edc.mvd.context.ExchangeContext}.
+ * Keys follow the {@code <entryId>::<assetId>} naming convention; keys without
+ * separator belong to the empty entry-id.
+ */
+public interface ExchangeContextStore {
+
+    String SEPARATOR = "::";
+
+    record Urls(String provider, String consumer) { }
+
+    void put(String key, String provider, String consumer);
+
+    /**
+     * @return the URLs stored for the key, or null if the key is unknown.
+     */
+    Urls find(String key);
+
+    List<String> keys();
+
+    List<String> keysOfEntry(String entryId);
+
+    void removeEntry(String entryId);
+
+    void clear();
+
+    static String entryIdOf(String key) {
+        int split = key.indexOf(SEPARATOR);
+        return split < 0 ? "" : key.substring(0, split);
+    }
+}
@@ -0,0 +1,151 @@
+package org.eclipse.edc.mvd.store;
+
+import org.eclipse.edc.mvd.model.DataExchangeEntry;
+import org.eclipse.edc.mvd.model.DataExchangeState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Default {@link DataExchangeEntryStore} for a single trustee instance. Entries are indexed
+ * by their asset set, so pairing a notification does not scan the whole queue, and counted
+ * per state, so admission control does not either.
+ */
+public class InMemoryDataExchangeEntryStore implements DataExchangeEntryStore {
+
+    private final Map<String, DataExchangeEntry> entries = new ConcurrentHashMap<>();
+    private final Map<Set<String>, Set<String>> idsByAssets = new ConcurrentHashMap<>();
+    private final Map<DataExchangeState, AtomicInteger> counts = new EnumMap<>(DataExchangeState.class);
+
+    public InMemoryDataExchangeEntryStore() {
+        for (DataExchangeState state : DataExchangeState.values()) {
+            counts.put(state, new AtomicInteger());
+        }
+    }
+
+    @Override
+    public List<DataExchangeEntry> findAll() {
+        return entries.values().stream().map(DataExchangeEntry::copy).toList();
+    }
+
+    @Override
+    public List<DataExchangeEntry> find(DataExchangeEntryQuery query) {
+        // stored entries are replaced, never modified, so they can be filtered in place and only the page is copied
+        Stream<DataExchangeEntry> matching = entries.values().stream().filter(query::matches).sorted(DataExchangeEntryQuery.ORDER);
+        if (query.limit() > 0) {
+            matching = matching.limit(query.limit());
+        }
+        return matching.map(DataExchangeEntry::copy).toList();
+    }
+
+    @Override
+    public List<DataExchangeEntry> findByAssets(Set<String> assets) {
+        Set<String> ids = idsByAssets.get(assets);
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream().map(entries::get).filter(Objects::nonNull).map(DataExchangeEntry::copy).toList();
+    }
+
+    @Override
+    public List<DataExchangeEntry> findByAssetSets(Collection<Set<String>> assetSets) {
+        List<DataExchangeEntry> found = new ArrayList<>();
+        for (Set<String> assets : assetSets) {
+            found.addAll(findByAssets(assets));
+        }
+        return found;
+    }
+
+    @Override
+    public Map<DataExchangeState, Integer> countByState() {
+        Map<DataExchangeState, Integer> snapshot = new EnumMap<>(DataExchangeState.class);
+        counts.forEach((state, count) -> {
+            if (count.get() > 0) {
+                snapshot.put(state, count.get());
+            }
+        });
+        return snapshot;
+    }
+
+    @Override
+    public DataExchangeEntry findById(String id) {
+        DataExchangeEntry entry = entries.get(id);
+        return entry == null ? null : entry.copy();
+    }
+
+    @Override
+    public void create(DataExchangeEntry entry) {
+        // the index is changed within the write of the entry, so it always matches the stored entries
+        entries.compute(entry.getId(), (id, previous) -> {
+            if (previous != null) {
+                unindex(previous);
+                counts.get(previous.getState()).decrementAndGet();
+            }
+            index(entry);
+            counts.get(entry.getState()).incrementAndGet();
+            return entry.copy();
+        });
+    }
+
+    @Override
+    public boolean update(DataExchangeEntry entry) {
+        boolean[] updated = { false };
+        entries.computeIfPresent(entry.getId(), (id, stored) -> {
+            if (stored.getVersion() != entry.getVersion()) {
+                return stored;
+            }
+            if (!key(stored).equals(key(entry))) {
+                unindex(stored);
+                index(entry);
+            }
+            if (stored.getState() != entry.getState()) {
+                counts.get(stored.getState()).decrementAndGet();
+                counts.get(entry.getState()).incrementAndGet();
+            }
+            entry.setVersion(entry.getVersion() + 1);
+            updated[0] = true;
+            return entry.copy();
+        });
+        return updated[0];
+    }
+
+    @Override
+    public boolean delete(String id) {
+        boolean[] deleted = { false };
+        entries.computeIfPresent(id, (key, stored) -> {
+            unindex(stored);
+            counts.get(stored.getState()).decrementAndGet();
+            deleted[0] = true;
+            return null;
+        });
+        return deleted[0];
+    }
+
+    private void index(DataExchangeEntry entry) {
+        idsByAssets.compute(key(entry), (assets, ids) -> {
+            Set<String> indexed = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            indexed.add(entry.getId());
+            return indexed;
+        });
+    }
+
+    private void unindex(DataExchangeEntry entry) {
+        idsByAssets.computeIfPresent(key(entry), (assets, ids) -> {
+            ids.remove(entry.getId());
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static Set<String> key(DataExchangeEntry entry) {
+        return new HashSet<>(entry.getAssets());
+    }
+}
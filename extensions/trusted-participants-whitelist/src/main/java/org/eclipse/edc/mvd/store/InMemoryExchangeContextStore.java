@@ -0,0 +1,57 @@
+package org.eclipse.edc.mvd.store;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default {@link ExchangeContextStore} for a single trustee instance. Besides the flat key
+ * lookup it keeps a second-level index (entry-id → asset-key → URLs), so listing or
+ * dropping the assets of one entry only touches that entry.
+ */
+public class InMemoryExchangeContextStore implements ExchangeContextStore {
+
+    private final Map<String, Urls> byKey = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Urls>> byEntry = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(String key, String provider, String consumer) {
+        Urls urls = new Urls(provider, consumer);
+        byEntry.compute(ExchangeContextStore.entryIdOf(key), (id, keys) -> {
+            Map<String, Urls> target = keys != null ? keys : new ConcurrentHashMap<>();
+            target.put(key, urls);
+            byKey.put(key, urls);
+            return target;
+        });
+    }
+
+    @Override
+    public Urls find(String key) {
+        return byKey.get(key);
+    }
+
+    @Override
+    public List<String> keys() {
+        return byKey.keySet().stream().toList();
+    }
+
+    @Override
+    public List<String> keysOfEntry(String entryId) {
+        Map<String, Urls> keys = byEntry.get(entryId);
+        return keys == null ? List.of() : List.copyOf(keys.keySet());
+    }
+
+    @Override
+    public void removeEntry(String entryId) {
+        byEntry.computeIfPresent(entryId, (id, keys) -> {
+            keys.keySet().forEach(byKey::remove);
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        byEntry.clear();
+        byKey.clear();
+    }
+}
@@ -0,0 +1,13 @@
+package org.eclipse.edc.mvd.store;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Opens connections to the database backing the JDBC stores.
+ */
+@FunctionalInterface
+public interface JdbcConnectionFactory {
+
+    Connection create() throws SQLException;
+}
@@ -0,0 +1,378 @@
+package org.eclipse.edc.mvd.store;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.mvd.model.DataExchangeEntry;
+import org.eclipse.edc.mvd.model.DataExchangeState;
+import org.eclipse.edc.mvd.model.Participant;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link DataExchangeEntryStore} shared by several trustee replicas through a database.
+ * Updates are guarded by the {@code version} column.
+ * <p>
+ * Every row carries an indexed {@code asset_key}, a hash of its sorted asset ids, so the
+ * entries of an asset set are found without reading the whole table.
+ * <p>
+ * The counts per state are read from the table at most once per {@link #COUNT_REFRESH} and
+ * counted up with the entries created here in between, so admission control does not query
+ * the whole table for every notification.
+ */
+public class JdbcDataExchangeEntryStore extends AbstractJdbcStore implements DataExchangeEntryStore {
+
+    private static final String TABLE = "trustee_data_exchange_entry";
+    private static final String COLUMNS = "id, provider, consumer, assets, state, created_at, last_updated_at, version";
+    private static final byte[] ASSET_SEPARATOR = { 0 };
+    private static final int MAX_KEYS_PER_QUERY = 500;
+    private static final TypeReference<List<String>> ASSETS_TYPE = new TypeReference<>() { };
+
+    static final Duration COUNT_REFRESH = Duration.ofSeconds(1);
+
+    private record StateCounts(Map<DataExchangeState, AtomicInteger> counts, long readAt) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private volatile StateCounts stateCounts;
+
+    public JdbcDataExchangeEntryStore(JdbcConnectionFactory connectionFactory, ObjectMapper objectMapper) {
+        super(connectionFactory);
+        this.objectMapper = objectMapper;
+        createSchema(
+                "CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+                        "id VARCHAR(36) PRIMARY KEY, " +
+                        "provider VARCHAR(4096), " +
+                        "consumer VARCHAR(4096), " +
+                        "assets VARCHAR(65535) NOT NULL, " +
+                        "state VARCHAR(16) NOT NULL, " +
+                        "created_at BIGINT NOT NULL, " +
+                        "last_updated_at BIGINT NOT NULL, " +
+                        "version BIGINT NOT NULL, " +
+                        "asset_key VARCHAR(64))",
+                "ALTER TABLE " + TABLE + " ADD COLUMN IF NOT EXISTS asset_key VARCHAR(64)",
+                "CREATE INDEX IF NOT EXISTS " + TABLE + "_asset_key_idx ON " + TABLE + " (asset_key)");
+        fillAssetKeys();
+    }
+
+    /**
+     * Sets the asset key of the rows written before the column existed.
+     */
+    private void fillAssetKeys() {
+        execute(connection -> {
+            try (PreparedStatement select = connection.prepareStatement("SELECT id, assets FROM " + TABLE + " WHERE asset_key IS NULL");
+                 PreparedStatement update = connection.prepareStatement("UPDATE " + TABLE + " SET asset_key = ? WHERE id = ?");
+                 ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    update.setString(1, assetKey(fromJson(resultSet.getString("assets"), ASSETS_TYPE)));
+                    update.setString(2, resultSet.getString("id"));
+                    update.executeUpdate();
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<DataExchangeEntry> findAll() {
+        return execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT " + COLUMNS + " FROM " + TABLE);
+                 ResultSet resultSet = statement.executeQuery()) {
+                List<DataExchangeEntry> entries = new ArrayList<>();
+                while (resultSet.next()) {
+                    entries.add(read(resultSet));
+                }
+                return entries;
+            }
+        });
+    }
+
+    @Override
+    public List<DataExchangeEntry> find(DataExchangeEntryQuery query) {
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM " + TABLE + " WHERE 1 = 1");
+        if (query.states() != null && !query.states().isEmpty()) {
+            sql.append(" AND state IN (").append(String.join(", ", Collections.nCopies(query.states().size(), "?"))).append(')');
+            query.states().forEach(state -> parameters.add(state.name()));
+        }
+        if (query.from() != null) {
+            sql.append(" AND created_at >= ?");
+            parameters.add(toMillis(query.from()));
+        }
+        if (query.to() != null) {
+            sql.append(" AND created_at < ?");
+            parameters.add(toMillis(query.to()));
+        }
+        if (query.after() != null) {
+            long afterMillis = toMillis(query.after().createdAt());
+            sql.append(" AND (created_at > ? OR (created_at = ? AND id > ?))");
+            parameters.add(afterMillis);
+            parameters.add(afterMillis);
+            parameters.add(query.after().id());
+        }
+        sql.append(" ORDER BY created_at, id");
+        // participants are stored as JSON, so that filter is applied to the rows read
+        if (query.limit() > 0 && query.participant() == null) {
+            sql.append(" LIMIT ").append(query.limit());
+        }
+        return execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    List<DataExchangeEntry> entries = new ArrayList<>();
+                    while (resultSet.next() && (query.limit() == 0 || entries.size() < query.limit())) {
+                        DataExchangeEntry entry = read(resultSet);
+                        if (query.matches(entry)) {
+                            entries.add(entry);
+                        }
+                    }
+                    return entries;
+                }
+            }
+        });
+    }
+
+    @Override
+    public List<DataExchangeEntry> findByAssets(Set<String> assets) {
+        return execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT " + COLUMNS + " FROM " + TABLE + " WHERE asset_key = ?")) {
+                statement.setString(1, assetKey(assets));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    List<DataExchangeEntry> entries = new ArrayList<>();
+                    while (resultSet.next()) {
+                        DataExchangeEntry entry = read(resultSet);
+                        // guards against hash collisions
+                        if (new HashSet<>(entry.getAssets()).equals(assets)) {
+                            entries.add(entry);
+                        }
+                    }
+                    return entries;
+                }
+            }
+        });
+    }
+
+    @Override
+    public List<DataExchangeEntry> findByAssetSets(Collection<Set<String>> assetSets) {
+        Map<String, Set<String>> byKey = new HashMap<>();
+        assetSets.forEach(assets -> byKey.put(assetKey(assets), assets));
+        List<String> keys = new ArrayList<>(byKey.keySet());
+        List<DataExchangeEntry> entries = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_QUERY) {
+            List<String> chunk = keys.subList(from, Math.min(from + MAX_KEYS_PER_QUERY, keys.size()));
+            execute(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT " + COLUMNS + " FROM " + TABLE +
+                        " WHERE asset_key IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")")) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        statement.setString(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            DataExchangeEntry entry = read(resultSet);
+                            // guards against hash collisions
+                            if (new HashSet<>(entry.getAssets()).equals(byKey.get(assetKey(entry.getAssets())))) {
+                                entries.add(entry);
+                            }
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        return entries;
+    }
+
+    @Override
+    public Map<DataExchangeState, Integer> countByState() {
+        long now = System.nanoTime();
+        StateCounts current = stateCounts;
+        if (current == null || now - current.readAt() >= COUNT_REFRESH.toNanos()) {
+            current = new StateCounts(readCounts(), now);
+            stateCounts = current;
+        }
+        Map<DataExchangeState, Integer> counts = new EnumMap<>(DataExchangeState.class);
+        current.counts().forEach((state, count) -> {
+            if (count.get() > 0) {
+                counts.put(state, count.get());
+            }
+        });
+        return counts;
+    }
+
+    private Map<DataExchangeState, AtomicInteger> readCounts() {
+        return execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT state, COUNT(*) FROM " + TABLE + " GROUP BY state");
+                 ResultSet resultSet = statement.executeQuery()) {
+                Map<DataExchangeState, AtomicInteger> counts = new EnumMap<>(DataExchangeState.class);
+                for (DataExchangeState state : DataExchangeState.values()) {
+                    counts.put(state, new AtomicInteger());
+                }
+                while (resultSet.next()) {
+                    counts.get(DataExchangeState.valueOf(resultSet.getString(1))).set(resultSet.getInt(2));
+                }
+                return counts;
+            }
+        });
+    }
+
+    @Override
+    public DataExchangeEntry findById(String id) {
+        return execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT " + COLUMNS + " FROM " + TABLE + " WHERE id = ?")) {
+                statement.setString(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? read(resultSet) : null;
+                }
+            }
+        });
+    }
+
+    @Override
+    public void create(DataExchangeEntry entry) {
+        execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO " + TABLE + " (" + COLUMNS + ", asset_key) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                statement.setString(1, entry.getId());
+                statement.setString(2, toJson(entry.getProvider()));
+                statement.setString(3, toJson(entry.getConsumer()));
+                statement.setString(4, toJson(entry.getAssets()));
+                statement.setString(5, entry.getState().name());
+                statement.setLong(6, toMillis(entry.getCreatedAt()));
+                statement.setLong(7, toMillis(entry.getLastUpdatedAt()));
+                statement.setLong(8, entry.getVersion());
+                statement.setString(9, assetKey(entry.getAssets()));
+                return statement.executeUpdate();
+            }
+        });
+        StateCounts current = stateCounts;
+        if (current != null) {
+            current.counts().get(entry.getState()).incrementAndGet();
+        }
+    }
+
+    @Override
+    public boolean update(DataExchangeEntry entry) {
+        int updated = execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE " + TABLE + " SET provider = ?, consumer = ?, assets = ?, asset_key = ?, state = ?, last_updated_at = ?, " +
+                            "version = ? WHERE id = ? AND version = ?")) {
+                statement.setString(1, toJson(entry.getProvider()));
+                statement.setString(2, toJson(entry.getConsumer()));
+                statement.setString(3, toJson(entry.getAssets()));
+                statement.setString(4, assetKey(entry.getAssets()));
+                statement.setString(5, entry.getState().name());
+                statement.setLong(6, toMillis(entry.getLastUpdatedAt()));
+                statement.setLong(7, entry.getVersion() + 1);
+                statement.setString(8, entry.getId());
+                statement.setLong(9, entry.getVersion());
+                return statement.executeUpdate();
+            }
+        });
+        if (updated == 0) {
+            return false;
+        }
+        entry.setVersion(entry.getVersion() + 1);
+        return true;
+    }
+
+    @Override
+    public boolean delete(String id) {
+        return execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + TABLE + " WHERE id = ?")) {
+                statement.setString(1, id);
+                return statement.executeUpdate() > 0;
+            }
+        });
+    }
+
+    private DataExchangeEntry read(ResultSet resultSet) throws SQLException {
+        return new DataExchangeEntry(
+                resultSet.getString("id"),
+                fromJson(resultSet.getString("provider"), Participant.class),
+                fromJson(resultSet.getString("consumer"), Participant.class),
+                fromJson(resultSet.getString("assets"), ASSETS_TYPE),
+                DataExchangeState.valueOf(resultSet.getString("state")),
+                fromMillis(resultSet.getLong("created_at")),
+                fromMillis(resultSet.getLong("last_updated_at")),
+                resultSet.getLong("version"));
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new EdcPersistenceException(e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new EdcPersistenceException(e);
+        }
+    }
+
+    private <T> T fromJson(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new EdcPersistenceException(e);
+        }
+    }
+
+    /**
+     * @return the SHA-256 of the distinct asset ids in sorted order, equal for equal asset sets.
+     */
+    static String assetKey(Collection<String> assets) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String asset : new TreeSet<>(assets)) {
+                digest.update(asset.getBytes(StandardCharsets.UTF_8));
+                digest.update(ASSET_SEPARATOR);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new EdcPersistenceException(e);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,118 @@
+package org.eclipse.edc.mvd.store;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ExchangeContextStore} shared by several trustee replicas through a database.
+ */
+public class JdbcExchangeContextStore extends AbstractJdbcStore implements ExchangeContextStore {
+
+    private static final String TABLE = "trustee_exchange_context";
+
+    public JdbcExchangeContextStore(JdbcConnectionFactory connectionFactory) {
+        super(connectionFactory);
+        createSchema(
+                "CREATE TABLE IF NOT EXISTS " + TABLE + " (" +
+                        "context_key VARCHAR(512) PRIMARY KEY, " +
+                        "entry_id VARCHAR(255) NOT NULL, " +
+                        "provider_url VARCHAR(2048), " +
+                        "consumer_url VARCHAR(2048))",
+                "CREATE INDEX IF NOT EXISTS " + TABLE + "_entry_idx ON " + TABLE + " (entry_id)");
+    }
+
+    @Override
+    public void put(String key, String provider, String consumer) {
+        execute(connection -> {
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE " + TABLE + " SET provider_url = ?, consumer_url = ? WHERE context_key = ?")) {
+                update.setString(1, provider);
+                update.setString(2, consumer);
+                update.setString(3, key);
+                if (update.executeUpdate() > 0) {
+                    return null;
+                }
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO " + TABLE + " (context_key, entry_id, provider_url, consumer_url) VALUES (?, ?, ?, ?)")) {
+                insert.setString(1, key);
+                insert.setString(2, ExchangeContextStore.entryIdOf(key));
+                insert.setString(3, provider);
+                insert.setString(4, consumer);
+                insert.executeUpdate();
+            } catch (SQLException e) {
+                // another replica inserted the key in the meantime (integrity constraint violation)
+                if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                    throw e;
+                }
+                put(key, provider, consumer);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Urls find(String key) {
+        return execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT provider_url, consumer_url FROM " + TABLE + " WHERE context_key = ?")) {
+                statement.setString(1, key);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? new Urls(resultSet.getString(1), resultSet.getString(2)) : null;
+                }
+            }
+        });
+    }
+
+    @Override
+    public List<String> keys() {
+        return execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT context_key FROM " + TABLE)) {
+                return readKeys(statement);
+            }
+        });
+    }
+
+    @Override
+    public List<String> keysOfEntry(String entryId) {
+        return execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT context_key FROM " + TABLE + " WHERE entry_id = ?")) {
+                statement.setString(1, entryId);
+                return readKeys(statement);
+            }
+        });
+    }
+
+    @Override
+    public void removeEntry(String entryId) {
+        execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + TABLE + " WHERE entry_id = ?")) {
+                statement.setString(1, entryId);
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+    @Override
+    public void clear() {
+        execute(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + TABLE)) {
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+    private List<String> readKeys(PreparedStatement statement) throws SQLException {
+        List<String> keys = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                keys.add(resultSet.getString(1));
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,74 @@
+package org.eclipse.edc.mvd.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the latest finished spans in memory for the /traces endpoint. Like the log entries of
+ * the {@code InMemoryMonitor}, spans live in a fixed-capacity ring buffer that overwrites the
+ * oldest span without taking a lock.
+ */
+public class InMemorySpanExporter {
+
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private final int capacity;
+    private final AtomicReferenceArray<Span> spans;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public InMemorySpanExporter() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public InMemorySpanExporter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Span capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.spans = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void export(Span span) {
+        spans.set((int) (nextSequence.getAndIncrement() % capacity), span);
+    }
+
+    /**
+     * @return the retained spans, oldest first.
+     */
+    public List<Span> getSpans() {
+        long end = nextSequence.get();
+        long start = Math.max(0, end - capacity);
+        List<Span> snapshot = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Span span = spans.get((int) (sequence % capacity));
+            if (span != null) {
+                snapshot.add(span);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return the retained spans of one trace, ordered by start time.
+     */
+    public List<Span> getTrace(String traceId) {
+        return getSpans().stream()
+                .filter(span -> span.traceId().equals(traceId))
+                .sorted(Comparator.comparing(span -> Instant.parse(span.startTime())))
+                .toList();
+    }
+
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            spans.set(i, null);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
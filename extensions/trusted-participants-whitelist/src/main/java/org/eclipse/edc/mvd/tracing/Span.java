@@ -0,0 +1,15 @@
+package org.eclipse.edc.mvd.tracing;
+
+import java.util.Map;
+
+/**
+ * A finished span, e.g. one /notify call as seen by the sender (CLIENT) or the receiver (SERVER).
+ *
+ * @param parentSpanId   Id of the calling span, null for the root span of a trace.
+ * @param startTime      ISO-8601 instant the span started at.
+ * @param durationMicros Duration of the span.
+ * @param status         "ok", "error" or the HTTP status code of a CLIENT span.
+ */
+public record Span(String traceId, String spanId, String parentSpanId, String name, String kind,
+                   String startTime, long durationMicros, String status, Map<String, String> attributes) {
+}
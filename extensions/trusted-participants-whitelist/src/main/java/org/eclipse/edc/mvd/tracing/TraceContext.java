@@ -0,0 +1,62 @@
+package org.eclipse.edc.mvd.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Trace and span id of the current operation, carried between connectors in the W3C
+ * {@code traceparent} header ({@code 00-<trace-id>-<parent-id>-<flags>}).
+ */
+public record TraceContext(String traceId, String spanId, String flags) {
+
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})");
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final String INVALID_SPAN_ID = "0".repeat(16);
+    private static final String SAMPLED = "01";
+
+    /**
+     * @return the context of the header, or null if the header is missing or malformed.
+     */
+    public static TraceContext parse(String traceparent) {
+        if (traceparent == null) {
+            return null;
+        }
+        var matcher = TRACEPARENT.matcher(traceparent.trim());
+        if (!matcher.matches() || INVALID_TRACE_ID.equals(matcher.group(1)) || INVALID_SPAN_ID.equals(matcher.group(2))) {
+            return null;
+        }
+        return new TraceContext(matcher.group(1), matcher.group(2), matcher.group(3));
+    }
+
+    /**
+     * Starts a new trace.
+     */
+    public static TraceContext newRoot() {
+        return new TraceContext(randomHex(32), randomHex(16), SAMPLED);
+    }
+
+    /**
+     * @return the context of a span within this trace, its parent being this span.
+     */
+    public TraceContext child() {
+        return new TraceContext(traceId, randomHex(16), flags);
+    }
+
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + "-" + flags;
+    }
+
+    private static String randomHex(int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String hex;
+        do {
+            StringBuilder builder = new StringBuilder(length);
+            while (builder.length() < length) {
+                String part = Long.toHexString(random.nextLong());
+                builder.append("0".repeat(16 - part.length())).append(part);
+            }
+            hex = builder.substring(0, length);
+        } while (hex.chars().allMatch(c -> c == '0'));
+        return hex;
+    }
+}
@@ -0,0 +1,141 @@
+package org.eclipse.edc.mvd.tracing;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Records the spans of an exchange across consumer, provider and trustee. Incoming requests
+ * continue the trace of their {@code traceparent} header in a SERVER span that is current for
+ * the handling thread; outgoing requests are recorded as CLIENT spans whose context is sent
+ * along in the {@code traceparent} header.
+ * <p>
+ * Like the whitelist, the tracer is shared by the whole extension through {@link #getInstance()}.
+ */
+public class Tracer {
+
+    public static final String TRACEPARENT = "traceparent";
+
+    private static final Tracer INSTANCE = new Tracer(new InMemorySpanExporter());
+
+    private final ThreadLocal<TraceContext> current = new ThreadLocal<>();
+    private volatile InMemorySpanExporter exporter;
+
+    public Tracer(InMemorySpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    public static Tracer getInstance() {
+        return INSTANCE;
+    }
+
+    /** replace the exporter, called once while the extension initializes */
+    public void use(InMemorySpanExporter spanExporter) {
+        exporter = spanExporter;
+    }
+
+    public InMemorySpanExporter getExporter() {
+        return exporter;
+    }
+
+    /**
+     * @return the context of the span current for this thread, or null outside of a span.
+     */
+    public TraceContext current() {
+        return current.get();
+    }
+
+    /**
+     * Runs the handling of an incoming request in a SERVER span, continuing the trace of the
+     * given header or starting a new trace.
+     */
+    public <T> T inSpan(String name, String traceparent, Supplier<T> work) {
+        TraceContext parent = TraceContext.parse(traceparent);
+        ActiveSpan span = start(name, "SERVER", parent != null ? parent : current.get());
+        TraceContext previous = current.get();
+        current.set(span.context);
+        try {
+            T result = work.get();
+            span.end("ok");
+            return result;
+        } catch (RuntimeException e) {
+            span.attribute("error", e.getMessage()).end("error");
+            throw e;
+        } finally {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Starts a SERVER span for an incoming request whose handling outlives the handling thread,
+     * e.g. a streamed response. The span is not current for any thread: work done for it runs in
+     * {@link #inSpan} with {@link ActiveSpan#traceparent()}, and the caller ends the span once
+     * the response is complete.
+     */
+    public ActiveSpan startServerSpan(String name, String traceparent) {
+        TraceContext parent = TraceContext.parse(traceparent);
+        return start(name, "SERVER", parent != null ? parent : current.get());
+    }
+
+    /**
+     * Starts a CLIENT span for an outgoing request, child of the span current for this thread.
+     * The caller sends {@link ActiveSpan#traceparent()} along and ends the span on the response.
+     */
+    public ActiveSpan startClientSpan(String name) {
+        return start(name, "CLIENT", current.get());
+    }
+
+    private ActiveSpan start(String name, String kind, TraceContext parent) {
+        TraceContext context = parent != null ? parent.child() : TraceContext.newRoot();
+        return new ActiveSpan(context, parent != null ? parent.spanId() : null, name, kind);
+    }
+
+    /**
+     * A span that is still running. It is exported once, when it is ended.
+     */
+    public class ActiveSpan {
+        private final TraceContext context;
+        private final String parentSpanId;
+        private final String name;
+        private final String kind;
+        private final Instant startTime = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final Map<String, String> attributes = new LinkedHashMap<>();
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        private ActiveSpan(TraceContext context, String parentSpanId, String name, String kind) {
+            this.context = context;
+            this.parentSpanId = parentSpanId;
+            this.name = name;
+            this.kind = kind;
+        }
+
+        public String traceparent() {
+            return context.traceparent();
+        }
+
+        public synchronized ActiveSpan attribute(String key, String value) {
+            attributes.put(key, String.valueOf(value));
+            return this;
+        }
+
+        public void end(String status) {
+            if (!ended.compareAndSet(false, true)) {
+                return;
+            }
+            long durationMicros = (System.nanoTime() - startNanos) / 1000;
+            Map<String, String> spanAttributes;
+            synchronized (this) {
+                spanAttributes = Map.copyOf(attributes);
+            }
+            exporter.export(new Span(context.traceId(), context.spanId(), parentSpanId, name, kind,
+                    startTime.toString(), durationMicros, status, spanAttributes));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.eclipse.edc.mvd.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * Compact set of strings with false positives but no false negatives, exchanged between
+ * connectors to find common entries without sending the entries themselves. Positions are
+ * derived from the SHA-256 digest of a key, so every connector computes the same filter.
+ */
+public class BloomFilter {
+
+    public static final int MAX_HASHES = 16;
+
+    private final byte[] bits;
+    private final int hashes;
+
+    private BloomFilter(byte[] bits, int hashes) {
+        this.bits = bits;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Creates a filter of the keys sized for the given false positive rate.
+     */
+    public static BloomFilter of(Collection<String> keys, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        int expected = Math.max(keys.size(), 1);
+        long bitCount = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int bytes = (int) Math.max(8, (bitCount + 7) / 8);
+        int hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round((double) bytes * 8 / expected * Math.log(2))));
+        BloomFilter filter = new BloomFilter(new byte[bytes], hashes);
+        keys.forEach(filter::add);
+        return filter;
+    }
+
+    /**
+     * Restores a filter from {@link #getBits()} and {@link #getHashes()}.
+     *
+     * @throws IllegalArgumentException if the encoding or number of hashes is invalid.
+     */
+    public static BloomFilter decode(String bits, int hashes) {
+        if (hashes < 1 || hashes > MAX_HASHES) {
+            throw new IllegalArgumentException("Number of hashes must be between 1 and " + MAX_HASHES + ": " + hashes);
+        }
+        byte[] decoded = Base64.getDecoder().decode(bits);
+        if (decoded.length == 0) {
+            throw new IllegalArgumentException("Filter must not be empty");
+        }
+        return new BloomFilter(decoded, hashes);
+    }
+
+    public boolean mightContain(String key) {
+        long[] digest = digest(key);
+        long size = bits.length * 8L;
+        for (int i = 0; i < hashes; i++) {
+            long position = Math.floorMod(digest[0] + i * digest[1], size);
+            if ((bits[(int) (position >>> 3)] & (1 << (position & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the bits of the filter, Base64 encoded.
+     */
+    public String getBits() {
+        return Base64.getEncoder().encodeToString(bits);
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+
+    private void add(String key) {
+        long[] digest = digest(key);
+        long size = bits.length * 8L;
+        for (int i = 0; i < hashes; i++) {
+            long position = Math.floorMod(digest[0] + i * digest[1], size);
+            bits[(int) (position >>> 3)] |= (byte) (1 << (position & 7));
+        }
+    }
+
+    private static long[] digest(String key) {
+        try {
+            ByteBuffer digest = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+            return new long[]{ digest.getLong(), digest.getLong() };
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.eclipse.edc.mvd.util;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Point in time after which the client of an exchange no longer waits for its result. The
+ * deadline is sent along to other connectors in the {@link #HEADER} header as Unix epoch
+ * milliseconds, so every hop of the exchange stops working for a client that gave up. This
+ * assumes the clocks of the connectors are synchronized.
+ * <p>
+ * Like a trace context, the deadline of the request being handled is current for the
+ * handling thread, see {@link #within}.
+ */
+public final class Deadline {
+
+    public static final String HEADER = "X-Request-Deadline";
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long epochMillis;
+
+    private Deadline(long epochMillis) {
+        this.epochMillis = epochMillis;
+    }
+
+    /**
+     * Thrown instead of calling a peer once the deadline of the call has passed.
+     */
+    public static class DeadlineExceededException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public DeadlineExceededException(String message) {
+            super(message);
+        }
+    }
+
+    public static Deadline at(long epochMillis) {
+        return new Deadline(epochMillis);
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.currentTimeMillis() + timeout.toMillis());
+    }
+
+    /**
+     * @return the deadline of the header, or null if it is missing or invalid.
+     */
+    public static Deadline parse(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return new Deadline(Long.parseLong(header.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param defaultTimeout The time from now used if the header has no deadline, none if zero.
+     * @return the deadline of the header, or the default deadline.
+     */
+    public static Deadline parse(String header, Duration defaultTimeout) {
+        Deadline deadline = parse(header);
+        if (deadline != null || defaultTimeout.isZero()) {
+            return deadline;
+        }
+        return after(defaultTimeout);
+    }
+
+    /**
+     * @return the deadline of the request handled by this thread, or null if it has none.
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return true if the request handled by this thread has a deadline that has passed.
+     */
+    public static boolean isCurrentExpired() {
+        Deadline deadline = CURRENT.get();
+        return deadline != null && deadline.isExpired();
+    }
+
+    /**
+     * Runs the work with the given deadline, or without one if null, as current deadline.
+     */
+    public static <T> T within(Deadline deadline, Supplier<T> work) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(deadline);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public long epochMillis() {
+        return epochMillis;
+    }
+
+    /**
+     * @return the time left, zero once the deadline has passed.
+     */
+    public Duration remaining() {
+        return Duration.ofMillis(Math.max(0, epochMillis - System.currentTimeMillis()));
+    }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= epochMillis;
+    }
+
+    public String header() {
+        return Long.toString(epochMillis);
+    }
+
+    @Override
+    public String toString() {
+        return header();
+    }
+}
@@ -0,0 +1,134 @@
+package org.eclipse.edc.mvd.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache whose entries expire a fixed time after they were written. All entries live
+ * equally long, so they expire in insertion order: a queue of the written keys is enough to
+ * drop expired entries, or the oldest ones once the cache is full, without scanning it.
+ * <p>
+ * A value being computed is held as a pending future, so the computation runs outside of the
+ * map and does not block other keys.
+ */
+public class ExpiringCache<K, V> {
+
+    private record Entry<V>(CompletableFuture<V> value, long expiresAt) {
+    }
+
+    private record Written<K, V>(K key, Entry<V> entry) {
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Queue<Written<K, V>> writeOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger writeOrderSize = new AtomicInteger();
+
+    public ExpiringCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    public ExpiringCache(int maxSize, Duration ttl, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * @return the value, or null if the key is unknown or expired.
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry == null || isExpired(entry, clock.getAsLong()) ? null : valueOf(entry);
+    }
+
+    public void put(K key, V value) {
+        Entry<V> entry = new Entry<>(CompletableFuture.completedFuture(value), clock.getAsLong() + ttlNanos);
+        entries.put(key, entry);
+        written(key, entry);
+    }
+
+    /**
+     * Returns the live value of the key or computes it. Concurrent calls for the same key wait
+     * for the first one, so the value is computed once per TTL. Nothing is cached if the
+     * computation throws.
+     */
+    public V computeIfAbsent(K key, Function<K, V> loader) {
+        long now = clock.getAsLong();
+        while (true) {
+            Entry<V> existing = entries.get(key);
+            if (existing != null && !isExpired(existing, now)) {
+                try {
+                    return existing.value().join();
+                } catch (CompletionException e) {
+                    // the computation failed and was removed, compute again
+                    continue;
+                }
+            }
+            Entry<V> entry = new Entry<>(new CompletableFuture<>(), now + ttlNanos);
+            if (existing == null ? entries.putIfAbsent(key, entry) != null : !entries.replace(key, existing, entry)) {
+                continue;
+            }
+            V value;
+            try {
+                value = loader.apply(key);
+            } catch (RuntimeException | Error e) {
+                entries.remove(key, entry);
+                entry.value().completeExceptionally(e);
+                throw e;
+            }
+            entry.value().complete(value);
+            written(key, entry);
+            return value;
+        }
+    }
+
+    public V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        return entry == null ? null : valueOf(entry);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void written(K key, Entry<V> entry) {
+        writeOrder.add(new Written<>(key, entry));
+        writeOrderSize.incrementAndGet();
+        long now = clock.getAsLong();
+        while (true) {
+            Written<K, V> oldest = writeOrder.peek();
+            if (oldest == null || !isExpired(oldest.entry(), now) && writeOrderSize.get() <= maxSize) {
+                return;
+            }
+            if (writeOrder.remove(oldest)) {
+                writeOrderSize.decrementAndGet();
+                // the key may have been written again since, only drop the entry of this write
+                entries.computeIfPresent(oldest.key(), (k, current) -> current == oldest.entry() ? null : current);
+            }
+        }
+    }
+
+    // null while the value is still being computed
+    private static <V> V valueOf(Entry<V> entry) {
+        CompletableFuture<V> value = entry.value();
+        return value.isDone() && !value.isCompletedExceptionally() ? value.join() : null;
+    }
+
+    private static boolean isExpired(Entry<?> entry, long now) {
+        return entry.expiresAt() - now <= 0;
+    }
+}
@@ -23,12 +23,35 @@ import java.util.List;
 
 public class HashUtil {
   public static String computeHash(List<Participant> participants) throws NoSuchAlgorithmException {
-    MessageDigest digest = MessageDigest.getInstance("SHA-256");
-    StringBuilder participantsString = new StringBuilder();
+    ParticipantDigest digest = newDigest();
     for (Participant participant : participants) {
-      participantsString.append(participant.toString());
+      digest.add(participant);
+    }
+    return digest.finish();
+  }
+
+  /**
+   * Starts a hash of participants added one at a time, e.g. while they are parsed. The result
+   * equals {@link #computeHash} of the same participants.
+   */
+  public static ParticipantDigest newDigest() throws NoSuchAlgorithmException {
+    return new ParticipantDigest(MessageDigest.getInstance("SHA-256"));
+  }
+
+  public static final class ParticipantDigest {
+
+    private final MessageDigest digest;
+
+    private ParticipantDigest(MessageDigest digest) {
+      this.digest = digest;
+    }
+
+    public void add(Participant participant) {
+      digest.update(participant.toString().getBytes());
+    }
+
+    public String finish() {
+      return Base64.getEncoder().encodeToString(digest.digest());
     }
-    byte[] hash = digest.digest(participantsString.toString().getBytes());
-    return Base64.getEncoder().encodeToString(hash);
   }
 }
@@ -0,0 +1,84 @@
+package org.eclipse.edc.mvd.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out one canonical instance per value, so a value repeated in many objects is held in
+ * memory once. The canonical instances are weakly referenced: once no object uses a value any
+ * more, the garbage collector releases it and its slot is dropped on the next call. Lookups do
+ * not lock, so the interner can be shared by all threads.
+ */
+public class Interner<T> {
+
+    private final Map<Canonical<T>, Canonical<T>> canonical = new ConcurrentHashMap<>();
+    private final ReferenceQueue<T> released = new ReferenceQueue<>();
+
+    /**
+     * Weak reference that is equal to the references of equal values. A released reference is
+     * only equal to itself, so it can still be removed.
+     */
+    private static final class Canonical<T> extends WeakReference<T> {
+        private final int hash;
+
+        private Canonical(T value, ReferenceQueue<T> queue) {
+            super(value, queue);
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Canonical)) {
+                return false;
+            }
+            T value = get();
+            return value != null && value.equals(((Canonical<?>) other).get());
+        }
+    }
+
+    /**
+     * @return the canonical instance equal to the value, the value itself if it is the first.
+     */
+    public T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+        dropReleased();
+        Canonical<T> candidate = new Canonical<>(value, released);
+        while (true) {
+            Canonical<T> existing = canonical.putIfAbsent(candidate, candidate);
+            if (existing == null) {
+                return value;
+            }
+            T interned = existing.get();
+            if (interned != null) {
+                return interned;
+            }
+            // released between the lookup and now
+            canonical.remove(existing);
+        }
+    }
+
+    public int size() {
+        dropReleased();
+        return canonical.size();
+    }
+
+    private void dropReleased() {
+        Reference<? extends T> reference;
+        while ((reference = released.poll()) != null) {
+            canonical.remove(reference);
+        }
+    }
+}
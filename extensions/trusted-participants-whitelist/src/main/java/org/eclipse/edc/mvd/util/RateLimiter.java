@@ -0,0 +1,87 @@
+package org.eclipse.edc.mvd.util;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per key, e.g. per participant. Every bucket holds up to {@code burst} permits
+ * and is refilled at a steady rate; a request takes permits or is told how long to wait for
+ * them. Buckets are kept in an {@link ExpiringCache}, so the number of keys is bounded and a
+ * key starts with a full bucket again once its bucket expired. The cache expires an entry a
+ * fixed time after it was written, so a bucket in use is written again before it would expire:
+ * buckets only expire after they were idle long enough to be full again, and a throttled key
+ * does not get a full bucket back while it keeps sending.
+ */
+public class RateLimiter<K> {
+
+    private static final Duration MIN_BUCKET_TTL = Duration.ofMinutes(10);
+
+    private static final class Bucket {
+        private double permits;
+        private long refilledAt;
+        private long writtenAt;
+
+        private Bucket(double permits, long refilledAt) {
+            this.permits = permits;
+            this.refilledAt = refilledAt;
+            this.writtenAt = refilledAt;
+        }
+    }
+
+    private final double permitsPerNano;
+    private final int burst;
+    private final LongSupplier clock;
+    private final long rewriteAfterNanos;
+    private final ExpiringCache<K, Bucket> buckets;
+
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys) {
+        this(permitsPerSecond, burst, maxKeys, System::nanoTime);
+    }
+
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.permitsPerNano = permitsPerSecond / Duration.ofSeconds(1).toNanos();
+        this.burst = burst;
+        this.clock = clock;
+        // an idle bucket must not expire before it would be full again
+        long refillNanos = (long) Math.ceil(burst / permitsPerNano);
+        long ttlNanos = Math.max(MIN_BUCKET_TTL.toNanos(), refillNanos) * 2;
+        this.rewriteAfterNanos = ttlNanos / 2;
+        this.buckets = new ExpiringCache<>(maxKeys, Duration.ofNanos(ttlNanos), clock);
+    }
+
+    /**
+     * Takes the permits from the bucket of the key if it holds enough of them.
+     *
+     * @return zero if the permits were taken, otherwise the time until the bucket holds
+     *         enough of them. A request for more permits than the burst takes a full bucket.
+     */
+    public Duration tryAcquire(K key, int permits) {
+        long now = clock.getAsLong();
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(burst, now));
+        Duration wait;
+        boolean rewrite;
+        synchronized (bucket) {
+            bucket.permits = Math.min(burst, bucket.permits + Math.max(0, now - bucket.refilledAt) * permitsPerNano);
+            bucket.refilledAt = Math.max(bucket.refilledAt, now);
+            int needed = Math.min(permits, burst);
+            if (bucket.permits >= needed) {
+                bucket.permits -= needed;
+                wait = Duration.ZERO;
+            } else {
+                wait = Duration.ofNanos((long) Math.ceil((needed - bucket.permits) / permitsPerNano));
+            }
+            // written at most twice per TTL, so the cache holds few writes per key
+            rewrite = now - bucket.writtenAt >= rewriteAfterNanos;
+            if (rewrite) {
+                bucket.writtenAt = now;
+            }
+        }
+        if (rewrite) {
+            buckets.put(key, bucket);
+        }
+        return wait;
+    }
+}
@@ -0,0 +1,79 @@
+package org.eclipse.edc.mvd.util;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first call runs the work, calls arriving
+ * while it runs wait for and share its result. Nothing is cached, the next call after the work
+ * finished runs it again. A waiting call gives up once the current {@link Deadline} has passed,
+ * while the work keeps running for the others.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @return the result of the work, or of the running work with the same key.
+     * @throws Deadline.DeadlineExceededException if the current deadline passed while waiting
+     *                                            for the running work.
+     */
+    public V execute(K key, Supplier<V> work) throws Deadline.DeadlineExceededException {
+        return execute(key, work, () -> {
+        });
+    }
+
+    /**
+     * @param joined called instead of the work if the call shares the result of a running one.
+     */
+    public V execute(K key, Supplier<V> work, Runnable joined) throws Deadline.DeadlineExceededException {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            joined.run();
+            return await(running, Deadline.current());
+        }
+        try {
+            V result = work.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running, Deadline deadline) throws Deadline.DeadlineExceededException {
+        try {
+            if (deadline == null) {
+                return running.get();
+            }
+            return running.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new Deadline.DeadlineExceededException("Deadline " + deadline + " exceeded while waiting for the running call");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *  Copyright (c) 2024 Fraunhofer Institute for Software and Systems Engineering
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Fraunhofer Institute for Software and Systems Engineering - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.eclipse.edc.mvd.tracing.InMemorySpanExporter;
+import org.eclipse.edc.mvd.tracing.Span;
+import org.eclipse.edc.mvd.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkNegotiationStreamingOutputTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final BlockingQueue<BulkNegotiationStreamingOutput.Result> results = new LinkedBlockingQueue<>();
+  private final InMemorySpanExporter spans = new InMemorySpanExporter();
+  private final Tracer.ActiveSpan span = new Tracer(spans).startServerSpan("negotiate-bulk", null);
+
+  @Test
+  void shouldStreamResultsInArrivalOrder() throws IOException {
+    results.add(new BulkNegotiationStreamingOutput.Result(1, null, 5, TextNode.valueOf("second")));
+    results.add(new BulkNegotiationStreamingOutput.Result(0, null, 9, TextNode.valueOf("first")));
+    List<Future<?>> negotiations = List.of(CompletableFuture.completedFuture(null), CompletableFuture.completedFuture(null));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    new BulkNegotiationStreamingOutput(results, negotiations, objectMapper, span).write(output);
+
+    assertThat(output.toString(StandardCharsets.UTF_8).split("\n"))
+            .containsExactly("{\"index\":1,\"dataSource\":null,\"durationMillis\":5,\"response\":\"second\"}",
+                    "{\"index\":0,\"dataSource\":null,\"durationMillis\":9,\"response\":\"first\"}");
+    assertThat(spans.getSpans()).extracting(Span::status).containsExactly("ok");
+  }
+
+  @Test
+  void shouldKeepSpanOpenUntilLastResult() throws Exception {
+    CompletableFuture<Void> pending = new CompletableFuture<>();
+    CompletableFuture<Void> streamed = CompletableFuture.runAsync(() -> {
+      try {
+        new BulkNegotiationStreamingOutput(results, List.of(pending), objectMapper, span).write(new ByteArrayOutputStream());
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    });
+
+    Thread.sleep(50);
+    assertThat(spans.getSpans()).isEmpty();
+
+    results.add(new BulkNegotiationStreamingOutput.Result(0, null, 1, TextNode.valueOf("first")));
+    streamed.get(5, TimeUnit.SECONDS);
+    assertThat(spans.getSpans()).hasSize(1);
+  }
+
+  @Test
+  void shouldCancelNegotiationsWhenClientDisconnects() {
+    results.add(new BulkNegotiationStreamingOutput.Result(0, null, 1, TextNode.valueOf("first")));
+    CompletableFuture<Void> pending = new CompletableFuture<>();
+    OutputStream disconnected = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("Broken pipe");
+      }
+    };
+
+    assertThatThrownBy(() -> new BulkNegotiationStreamingOutput(results, List.of(pending, new CompletableFuture<>()), objectMapper, span)
+            .write(disconnected)).isInstanceOf(IOException.class);
+    assertThat(pending).isCancelled();
+    assertThat(spans.getSpans()).extracting(Span::status).containsExactly("error");
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2024 Fraunhofer Institute for Software and Systems Engineering
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Fraunhofer Institute for Software and Systems Engineering - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.mvd.model.NegotiationRequest;
+import org.eclipse.edc.mvd.model.Participant;
+import org.eclipse.edc.mvd.util.HashUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NegotiationRequestReaderTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final NegotiationRequestReader reader = new NegotiationRequestReader(objectMapper, 100);
+  private final TrustedParticipantsWhitelist whitelist = TrustedParticipantsWhitelist.getInstance();
+  private final Participant trustee1 = new Participant("did:web:t1", "trustee1", "http://trustee1");
+  private final Participant trustee2 = new Participant("did:web:t2", "trustee2", "http://trustee2");
+
+  @BeforeEach
+  void setUp() {
+    whitelist.clear();
+    whitelist.addTrustedParticipant(trustee1);
+    whitelist.addTrustedParticipant(trustee2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    whitelist.clear();
+  }
+
+  @Test
+  void shouldHashAndMatchWhileReading() throws Exception {
+    List<Participant> sent = List.of(new Participant("did:web:x", "other", "http://other"), trustee2, trustee1);
+    NegotiationRequest request = new NegotiationRequest(
+            new Participant("p", "provider", "http://provider"), new Participant("c", "consumer", "http://consumer"),
+            sent, List.of("asset1"), HashUtil.computeHash(sent));
+    String json = objectMapper.writeValueAsString(request).replaceFirst("\\{", "{\"unknown\":{\"nested\":[1,2]},");
+
+    NegotiationRequestReader.Result result = reader.read(stream(json), whitelist.snapshot());
+
+    assertThat(result.hash()).isEqualTo(request.hash());
+    assertThat(result.matches()).containsExactly(trustee1, trustee2);
+    assertThat(result.trustees()).isEqualTo(3);
+    assertThat(result.request().dataSource()).isEqualTo(request.dataSource());
+    assertThat(result.request().assets()).containsExactly("asset1");
+    assertThat(result.request().trustedDataTrustees()).isNull();
+  }
+
+  @Test
+  void shouldRejectTooManyTrustees() throws Exception {
+    List<Participant> sent = IntStream.range(0, 101).mapToObj(i -> new Participant("id" + i, "name" + i, "http://url" + i)).toList();
+    String json = objectMapper.writeValueAsString(new NegotiationRequest(null, null, sent, List.of(), "hash"));
+
+    assertThatThrownBy(() -> reader.read(stream(json), whitelist.snapshot()))
+            .isInstanceOf(NegotiationRequestReader.TooManyTrusteesException.class);
+  }
+
+  @Test
+  void shouldRejectMalformedRequest() {
+    assertThatThrownBy(() -> reader.read(stream("[]"), whitelist.snapshot())).isInstanceOf(IOException.class);
+    assertThatThrownBy(() -> reader.read(stream("{\"trustedDataTrustees\":{}}"), whitelist.snapshot()))
+            .isInstanceOf(IOException.class);
+  }
+
+  private static ByteArrayInputStream stream(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ *  Copyright (c) 2024 Fraunhofer Institute for Software and Systems Engineering
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Fraunhofer Institute for Software and Systems Engineering - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.edc.mvd.metrics.MetricsRegistry;
+import org.eclipse.edc.mvd.model.InMemoryMonitor;
+import org.eclipse.edc.mvd.service.DataExchangeQueueManager;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TrustedParticipantsWhitelistApiControllerLogsTest {
+
+  private final InMemoryMonitor logs = new InMemoryMonitor(mock(Monitor.class));
+  private final TrustedParticipantsWhitelistApiController controller = new TrustedParticipantsWhitelistApiController(
+          logs, new ObjectMapper(), mock(HttpClient.class), mock(DataExchangeQueueManager.class), new MetricsRegistry());
+
+  @Test
+  void shouldRejectLimitBelowOne() {
+    logs.info("first");
+
+    assertThat(controller.getLogs(null, null, null, null, 0, null, null, null).getStatus()).isEqualTo(400);
+    assertThat(controller.getLogs(null, null, null, null, -1, null, null, null).getStatus()).isEqualTo(400);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void shouldPointCursorAtLastReturnedEntry() {
+    logs.info("first");
+    logs.info("second");
+
+    Response page = controller.getLogs(null, null, null, null, 1, null, null, null);
+
+    List<InMemoryMonitor.LogEntry> entries = (List<InMemoryMonitor.LogEntry>) page.getEntity();
+    assertThat(entries).hasSize(1);
+    assertThat(page.getHeaders().getFirst(TrustedParticipantsWhitelistApiController.LOG_CURSOR_HEADER))
+            .isEqualTo(entries.get(0).getSequence());
+  }
+
+  @Test
+  void shouldSendHeartbeatInNdjsonStream() throws Exception {
+    Response stream = controller.getLogs(null, null, null, null, null, "ndjson", 1, null);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    ((StreamingOutput) stream.getEntity()).write(output);
+
+    assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("\n");
+  }
+
+  @Test
+  void shouldRejectStreamsBeyondCap() throws Exception {
+    List<Response> streams = new ArrayList<>();
+    Response rejected;
+    do {
+      rejected = controller.getLogs(null, null, null, null, null, "ndjson", 1, null);
+      streams.add(rejected);
+    } while (rejected.getStatus() == 200);
+
+    assertThat(rejected.getStatus()).isEqualTo(503);
+    assertThat(streams).hasSizeGreaterThan(1);
+
+    // a finished stream frees its slot
+    ((StreamingOutput) streams.get(0).getEntity()).write(new ByteArrayOutputStream());
+    assertThat(controller.getLogs(null, null, null, null, null, "ndjson", 1, null).getStatus()).isEqualTo(200);
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright (c) 2024 Fraunhofer Institute for Software and Systems Engineering
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Fraunhofer Institute for Software and Systems Engineering - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.edc.mvd.metrics.MetricsRegistry;
+import org.eclipse.edc.mvd.model.NegotiationRequest;
+import org.eclipse.edc.mvd.model.Participant;
+import org.eclipse.edc.mvd.service.DataExchangeQueueManager;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrustedParticipantsWhitelistApiControllerNegotiateTest {
+
+  private final HttpClient httpClient = mock(HttpClient.class);
+  private final TrustedParticipantsWhitelistApiController controller = new TrustedParticipantsWhitelistApiController(
+          mock(Monitor.class), new ObjectMapper(), httpClient, mock(DataExchangeQueueManager.class), new MetricsRegistry());
+
+  @Test
+  void shouldPassOnErrorStatusOfCounterparty() throws Exception {
+    answer(429, Map.of("Retry-After", List.of("7")), "{\"error\":\"slow down\"}");
+
+    Response response = controller.initiateNegotiation(request("counterparty-429"), false, new RequestContext());
+
+    assertThat(response.getStatus()).isEqualTo(429);
+    assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("7");
+    assertThat(controller.getNegotiationResponse().getStatus()).isEqualTo(404);
+  }
+
+  @Test
+  void shouldRejectResponseThatIsNoObject() throws Exception {
+    answer(200, Map.of(), "[]");
+
+    Response response = controller.initiateNegotiation(request("counterparty-array"), false, new RequestContext());
+
+    assertThat(response.getStatus()).isEqualTo(502);
+    assertThat(controller.getNegotiationResponse().getStatus()).isEqualTo(404);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void answer(int status, Map<String, List<String>> headers, String body) throws Exception {
+    HttpResponse<String> response = mock(HttpResponse.class);
+    when(response.statusCode()).thenReturn(status);
+    when(response.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+    when(response.body()).thenReturn(body);
+    when(httpClient.send(any(), any(HttpResponse.BodyHandler.class))).thenReturn(response);
+  }
+
+  private static NegotiationRequest request(String host) {
+    return new NegotiationRequest(new Participant("source", "source", "http://" + host + "/api"),
+            new Participant("sink", "sink", "http://sink/api"), null, List.of("asset"), null, null);
+  }
+}
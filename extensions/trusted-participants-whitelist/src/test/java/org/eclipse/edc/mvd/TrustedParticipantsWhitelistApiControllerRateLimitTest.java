@@ -0,0 +1,77 @@
+/*
+ *  Copyright (c) 2024 Fraunhofer Institute for Software and Systems Engineering
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Fraunhofer Institute for Software and Systems Engineering - initial implementation
+ *
+ */
+
+package org.eclipse.edc.mvd;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.eclipse.edc.mvd.metrics.MetricsRegistry;
+import org.eclipse.edc.mvd.model.DataTrusteeRequest;
+import org.eclipse.edc.mvd.model.Participant;
+import org.eclipse.edc.mvd.service.DataExchangeQueueManager;
+import org.eclipse.edc.mvd.service.NotificationOutbox;
+import org.eclipse.edc.mvd.service.NotificationResult;
+import org.eclipse.edc.mvd.util.ExpiringCache;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrustedParticipantsWhitelistApiControllerRateLimitTest {
+
+  private final DataExchangeQueueManager queueManager = mock(DataExchangeQueueManager.class);
+  private final TrustedParticipantsWhitelistApiController controller = new TrustedParticipantsWhitelistApiController(
+          mock(Monitor.class), new ObjectMapper(), mock(HttpClient.class), queueManager, new MetricsRegistry(),
+          new NegotiationSettings(1, Duration.ofSeconds(1), 10, Duration.ZERO, 0, 1, 1),
+          mock(NotificationOutbox.class), new ExpiringCache<>(10, Duration.ofMinutes(1)));
+
+  @Test
+  void shouldLimitClientWhateverSenderItNames() {
+    when(queueManager.addProviderNotification(any(), any(), any())).thenReturn(new NotificationResult("entry", false));
+
+    assertThat(controller.receiveNotification(notification("provider-a"), null, context("10.0.0.1")).getStatus()).isEqualTo(200);
+    assertThat(controller.receiveNotification(notification("provider-b"), null, context("10.0.0.1")).getStatus()).isEqualTo(429);
+    assertThat(controller.receiveNotification(notification("provider-b"), null, context("10.0.0.2")).getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  void shouldLimitPreNegotiationsBeforeReadingThem() {
+    assertThat(controller.receivePreNegotiation(body("{}"), context("10.0.0.1")).getStatus()).isEqualTo(400);
+    assertThat(controller.receivePreNegotiation(body("{}"), context("10.0.0.1")).getStatus()).isEqualTo(429);
+  }
+
+  private static InputStream body(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static RequestContext context(String remoteAddress) {
+    HttpServletRequest request = mock(HttpServletRequest.class);
+    when(request.getRemoteAddr()).thenReturn(remoteAddress);
+    return new RequestContext(null, null, request);
+  }
+
+  private static DataTrusteeRequest notification(String provider) {
+    return new DataTrusteeRequest(new Participant(provider, provider, "http://" + provider), null, List.of("asset"), "provider", null);
+  }
+}
@@ -0,0 +1,50 @@
+package org.eclipse.edc.mvd.context;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExchangeContextTest {
+
+    @BeforeEach
+    void setUp() {
+        ExchangeContext.clear();
+    }
+
+    @Test
+    void shouldListOnlyAssetsOfEntry() {
+        ExchangeContext.put("entry1::asset1", "http://provider", "http://consumer");
+        ExchangeContext.put("entry1::asset2", "http://provider", "http://consumer");
+        ExchangeContext.put("entry10::asset1", "http://provider", "http://consumer");
+
+        assertThat(ExchangeContext.assetsOfEntry("entry1"))
+                .containsExactlyInAnyOrder("entry1::asset1", "entry1::asset2");
+        assertThat(ExchangeContext.assetsOfEntry("unknown")).isEmpty();
+        assertThat(ExchangeContext.allAssets()).hasSize(3);
+    }
+
+    @Test
+    void shouldResolveUrlsByKey() {
+        ExchangeContext.put("entry1::asset1", "http://provider", "http://consumer");
+        ExchangeContext.put("plainAsset", "http://provider2", "http://consumer2");
+
+        assertThat(ExchangeContext.provider("entry1::asset1")).isEqualTo("http://provider");
+        assertThat(ExchangeContext.consumer("entry1::asset1")).isEqualTo("http://consumer");
+        assertThat(ExchangeContext.provider("plainAsset")).isEqualTo("http://provider2");
+    }
+
+    @Test
+    void shouldRemoveAllAssetsOfEntry() {
+        ExchangeContext.put("entry1::asset1", "http://provider", "http://consumer");
+        ExchangeContext.put("entry2::asset1", "http://provider", "http://consumer");
+
+        ExchangeContext.removeEntry("entry1");
+
+        assertThat(ExchangeContext.assetsOfEntry("entry1")).isEmpty();
+        assertThat(ExchangeContext.allAssets()).containsExactly("entry2::asset1");
+        assertThatThrownBy(() -> ExchangeContext.provider("entry1::asset1"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
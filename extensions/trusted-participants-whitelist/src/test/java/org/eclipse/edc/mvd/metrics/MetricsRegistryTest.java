@@ -0,0 +1,79 @@
+package org.eclipse.edc.mvd.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    void shouldRenderCountersPerLabels() {
+        registry.counter("negotiations_total", "Negotiations.", "role", "initiator").increment();
+        registry.counter("negotiations_total", "Negotiations.", "role", "initiator").increment();
+        registry.counter("negotiations_total", "Negotiations.", "role", "responder").increment(5);
+
+        assertThat(registry.scrape()).isEqualTo("""
+                # HELP negotiations_total Negotiations.
+                # TYPE negotiations_total counter
+                negotiations_total{role="initiator"} 2
+                negotiations_total{role="responder"} 5
+                """);
+    }
+
+    @Test
+    void shouldRenderGauges() {
+        registry.gauge("whitelist_size", "Whitelist size.", () -> 3);
+        registry.gauges("queue_entries", "Entries per state.", "state", () -> Map.of("READY", 2, "FAILED", 0));
+
+        assertThat(registry.scrape()).isEqualTo("""
+                # HELP queue_entries Entries per state.
+                # TYPE queue_entries gauge
+                queue_entries{state="FAILED"} 0
+                queue_entries{state="READY"} 2
+                # HELP whitelist_size Whitelist size.
+                # TYPE whitelist_size gauge
+                whitelist_size 3
+                """);
+    }
+
+    @Test
+    void shouldRenderCumulativeHistogramBuckets() {
+        Histogram histogram = registry.histogram("hop_seconds", "Hop latency.", "hop", "notify");
+        histogram.record(Duration.ofMillis(3));
+        histogram.record(Duration.ofMillis(200));
+        histogram.record(Duration.ofSeconds(30));
+
+        String scrape = registry.scrape();
+
+        assertThat(scrape)
+                .contains("# TYPE hop_seconds histogram")
+                .contains("hop_seconds_bucket{hop=\"notify\",le=\"0.001\"} 0\n")
+                .contains("hop_seconds_bucket{hop=\"notify\",le=\"0.005\"} 1\n")
+                .contains("hop_seconds_bucket{hop=\"notify\",le=\"0.25\"} 2\n")
+                .contains("hop_seconds_bucket{hop=\"notify\",le=\"10\"} 2\n")
+                .contains("hop_seconds_bucket{hop=\"notify\",le=\"+Inf\"} 3\n")
+                .contains("hop_seconds_sum{hop=\"notify\"} 30.203\n")
+                .contains("hop_seconds_count{hop=\"notify\"} 3\n");
+    }
+
+    @Test
+    void shouldEscapeLabelValues() {
+        registry.counter("errors_total", "Errors.", "message", "say \"hi\"\n").increment();
+
+        assertThat(registry.scrape()).contains("errors_total{message=\"say \\\"hi\\\"\\n\"} 1");
+    }
+
+    @Test
+    void shouldRejectNameRegisteredWithOtherType() {
+        registry.counter("requests", "Requests.");
+
+        assertThatThrownBy(() -> registry.histogram("requests", "Requests."))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
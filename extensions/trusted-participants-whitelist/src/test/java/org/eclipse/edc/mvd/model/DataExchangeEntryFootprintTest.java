@@ -0,0 +1,58 @@
+package org.eclipse.edc.mvd.model;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataExchangeEntryFootprintTest {
+
+    private static final int ENTRIES = 10_000;
+
+    @Test
+    void shouldKeepEntriesSmall() {
+        List<DataExchangeEntry> entries = new ArrayList<>(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            // participants and asset ids as they arrive: new but equal objects for every notification
+            Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+            Participant consumer = new Participant("did:example:consumer", "Consumer", "http://consumer.com");
+            entries.add(new DataExchangeEntry(provider, consumer, List.of(new String("asset1"), new String("asset" + i % 10))));
+        }
+
+        long bytesPerEntry = GraphLayout.parseInstance(entries).totalSize() / ENTRIES;
+
+        // a UUID string, two LocalDateTime objects and a list of asset strings alone took more than 300 bytes
+        assertThat(bytesPerEntry).isLessThan(128);
+    }
+
+    @Test
+    void shouldRestoreCompactedValues() {
+        LocalDateTime createdAt = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 123_456_789);
+        Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+        String uuid = "2454c106-66b4-4353-9697-7a978c7df3fd";
+
+        DataExchangeEntry entry = new DataExchangeEntry(uuid, provider, null, List.of("asset1", "asset2"),
+                DataExchangeState.READY, createdAt, createdAt.plusNanos(1), 3);
+        DataExchangeEntry other = new DataExchangeEntry("2454C106-66B4-4353-9697-7A978C7DF3FD",
+                new Participant("did:example:provider", "Provider", "http://provider.com"), null, List.of("asset2"),
+                DataExchangeState.READY, createdAt, createdAt, 0);
+        DataExchangeEntry renamed = new DataExchangeEntry("other-id",
+                new Participant("did:example:renamed", "Provider", "http://provider.com"), null, List.of(),
+                DataExchangeState.READY, createdAt, createdAt, 0);
+
+        assertThat(entry.getId()).isEqualTo(uuid);
+        assertThat(other.getId()).isEqualTo("2454C106-66B4-4353-9697-7A978C7DF3FD");
+        assertThat(entry.getAssets()).containsExactly("asset1", "asset2");
+        assertThat(entry.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(entry.getLastUpdatedAt()).isEqualTo(createdAt.plusNanos(1));
+        assertThat(entry.getVersion()).isEqualTo(3);
+        assertThat(other.getProvider()).isSameAs(entry.getProvider());
+        // equal by name and URL, but another id
+        assertThat(renamed.getProvider().getId()).isEqualTo("did:example:renamed");
+        assertThat(entry.copy().getAssets()).isEqualTo(entry.getAssets());
+    }
+}
@@ -0,0 +1,120 @@
+package org.eclipse.edc.mvd.model;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class InMemoryMonitorTest {
+
+    private final Monitor delegate = mock(Monitor.class);
+
+    @Test
+    void shouldForwardToDelegate() {
+        InMemoryMonitor monitor = new InMemoryMonitor(delegate);
+
+        monitor.info("message");
+
+        verify(delegate).info("message");
+        assertThat(monitor.getLogEntries()).extracting(InMemoryMonitor.LogEntry::getMessage).containsExactly("message");
+    }
+
+    @Test
+    void shouldKeepOnlyLatestEntries() {
+        InMemoryMonitor monitor = new InMemoryMonitor(delegate, 3);
+
+        for (int i = 0; i < 5; i++) {
+            monitor.info("message" + i);
+        }
+
+        assertThat(monitor.getLogEntries())
+                .extracting(InMemoryMonitor.LogEntry::getMessage)
+                .containsExactly("message2", "message3", "message4");
+        assertThat(monitor.getLogEntries())
+                .extracting(InMemoryMonitor.LogEntry::getSequence)
+                .containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void shouldNotLoseEntriesOfConcurrentWriters() throws InterruptedException {
+        InMemoryMonitor monitor = new InMemoryMonitor(delegate, 10_000);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    monitor.debug("message");
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertThat(monitor.getLogEntries()).hasSize(4000);
+    }
+
+    @Test
+    void shouldNotCaptureEntriesBelowMinimumLevel() {
+        InMemoryMonitor monitor = new InMemoryMonitor(delegate, 10, InMemoryMonitor.Level.INFO);
+        AtomicInteger formatted = new AtomicInteger();
+
+        monitor.debug(() -> "debug" + formatted.incrementAndGet());
+        monitor.info("info");
+
+        assertThat(formatted).hasValue(0);
+        assertThat(monitor.getLogEntries()).extracting(InMemoryMonitor.LogEntry::getLevel).containsExactly("INFO");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFormatSupplierOnlyOnce() {
+        doAnswer(invocation -> ((Supplier<String>) invocation.getArgument(0)).get()).when(delegate).info(any(Supplier.class));
+        InMemoryMonitor monitor = new InMemoryMonitor(delegate);
+        AtomicInteger formatted = new AtomicInteger();
+
+        monitor.info(() -> "message" + formatted.incrementAndGet());
+
+        assertThat(monitor.getLogEntries()).extracting(InMemoryMonitor.LogEntry::getMessage).containsExactly("message1");
+        assertThat(monitor.getLogEntries()).extracting(InMemoryMonitor.LogEntry::getMessage).containsExactly("message1");
+        assertThat(formatted).hasValue(1);
+    }
+
+    @Test
+    void shouldReturnOnlyEntriesAfterCursor() {
+        InMemoryMonitor monitor = new InMemoryMonitor(delegate, 10);
+        monitor.info("message0");
+        monitor.info("message1");
+        long cursor = monitor.getLastSequence();
+        monitor.info("message2");
+
+        assertThat(monitor.getLogEntriesAfter(cursor))
+                .extracting(InMemoryMonitor.LogEntry::getMessage)
+                .containsExactly("message2");
+        assertThat(monitor.getLogEntriesAfter(monitor.getLastSequence())).isEmpty();
+    }
+
+    @Test
+    void shouldWakeUpReaderWaitingForNewEntries() throws InterruptedException {
+        InMemoryMonitor monitor = new InMemoryMonitor(delegate, 10);
+        long cursor = monitor.getLastSequence();
+
+        assertThat(monitor.awaitEntriesAfter(cursor, 10, TimeUnit.MILLISECONDS)).isFalse();
+
+        Thread writer = new Thread(() -> monitor.info("message"));
+        writer.start();
+        assertThat(monitor.awaitEntriesAfter(cursor, 5, TimeUnit.SECONDS)).isTrue();
+        writer.join();
+    }
+}
@@ -3,7 +3,11 @@ package org.eclipse.edc.mvd.service;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.mvd.context.ExchangeContext;
+import org.eclipse.edc.mvd.metrics.MetricsRegistry;
 import org.eclipse.edc.mvd.model.*;
+import org.eclipse.edc.mvd.store.InMemoryDataExchangeEntryStore;
+import org.eclipse.edc.mvd.util.ExpiringCache;
 import org.eclipse.edc.spi.monitor.Monitor;
 import org.junit.jupiter.api.*;
 import org.mockito.ArgumentCaptor;
@@ -12,8 +16,15 @@ import org.mockito.MockitoAnnotations;
 
 import java.lang.reflect.Field;
 import java.net.http.HttpClient;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -58,6 +69,75 @@ class DataExchangeQueueManagerTest {
         assertEquals(DataExchangeState.NOT_READY, entry.getState());
     }
 
+    @Test
+    void testAddProviderNotification_DuplicateIdempotencyKey() {
+        Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+        Participant consumer = new Participant("did:example:consumer", "Consumer", "http://consumer.com");
+        List<String> assets = List.of("asset1", "asset2");
+
+        NotificationResult first = queueManager.addProviderNotification(provider, assets, "key-1");
+        NotificationResult retry = queueManager.addProviderNotification(provider, assets, "key-1");
+        NotificationResult consumerResult = queueManager.addConsumerNotification(consumer, assets, "key-1");
+
+        assertFalse(first.duplicate());
+        assertTrue(retry.duplicate());
+        assertEquals(first.entryId(), retry.entryId());
+        // the same key of another sender is not a retry
+        assertFalse(consumerResult.duplicate());
+        assertEquals(first.entryId(), consumerResult.entryId());
+        assertEquals(1, queueManager.getEntries().size());
+    }
+
+    @Test
+    void testAddNotifications_Batch() {
+        Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+        Participant consumer = new Participant("did:example:consumer", "Consumer", "http://consumer.com");
+        String existingId = queueManager.addProviderNotification(provider, List.of("asset1"));
+
+        List<NotificationResult> results = queueManager.addNotifications(List.of(
+                new DataTrusteeRequest(provider, consumer, List.of("asset1"), "consumer"),
+                new DataTrusteeRequest(provider, consumer, List.of("asset2", "asset3"), "provider"),
+                new DataTrusteeRequest(provider, consumer, List.of("asset3", "asset2"), "consumer")));
+
+        assertEquals(3, results.size());
+        assertEquals(existingId, results.get(0).entryId());
+        // the second notification of a batch pairs with an entry created earlier in the same batch
+        assertEquals(results.get(1).entryId(), results.get(2).entryId());
+        assertEquals(2, queueManager.getEntries().size());
+        queueManager.getEntries().forEach(entry -> assertEquals(DataExchangeState.READY, entry.getState()));
+    }
+
+    @Test
+    void testAddNotifications_InvalidSenderType() {
+        Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+
+        assertThrows(IllegalArgumentException.class, () -> queueManager.addNotifications(List.of(
+                new DataTrusteeRequest(provider, null, List.of("asset1"), "provider"),
+                new DataTrusteeRequest(provider, null, List.of("asset2"), "trustee"))));
+        assertTrue(queueManager.getEntries().isEmpty());
+    }
+
+    @Test
+    void testAddNotification_QueueLimits() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        DataExchangeQueueManager manager = new DataExchangeQueueManager(new InMemoryDataExchangeEntryStore(), objectMapper, httpClient,
+                monitor, metrics, new ExpiringCache<>(10, Duration.ofMinutes(1)), new QueueLimits(0, 2));
+        Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+        Participant consumer = new Participant("did:example:consumer", "Consumer", "http://consumer.com");
+
+        manager.addProviderNotification(provider, List.of("asset1"));
+        manager.addProviderNotification(provider, List.of("asset2"));
+        DataExchangeQueueManager.QueueFullException rejected = assertThrows(DataExchangeQueueManager.QueueFullException.class,
+                () -> manager.addProviderNotification(provider, List.of("asset3")));
+        // completing an open entry does not grow the queue
+        manager.addConsumerNotification(consumer, List.of("asset1"));
+        manager.addProviderNotification(provider, List.of("asset3"));
+
+        assertFalse(rejected.getRetryAfter().isZero());
+        assertEquals(3, manager.getEntries().size());
+        assertTrue(metrics.scrape().contains("trustee_notifications_rejected_total{limit=\"not_ready\"} 1"));
+    }
+
     @Test
     void testAddConsumerNotification_ExistingEntry() {
         Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
@@ -81,23 +161,56 @@ class DataExchangeQueueManagerTest {
     }
 
     @Test
-    void testProcessEntries_Timeout() throws Exception {
+    void testProcessEntries_Timeout() {
+        InMemoryDataExchangeEntryStore store = new InMemoryDataExchangeEntryStore();
+        DataExchangeQueueManager manager = new DataExchangeQueueManager(store, objectMapper, httpClient, monitor);
         Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
         List<String> assets = List.of("asset1", "asset2");
 
-        queueManager.addProviderNotification(provider, assets);
+        String entryId = manager.addProviderNotification(provider, assets);
 
-        // Simulate time passing using reflection
-        DataExchangeEntry entry = queueManager.getEntries().get(0);
+        // Simulate time passing by writing the entry back with an old timestamp
+        DataExchangeEntry stored = store.findById(entryId);
+        LocalDateTime longAgo = LocalDateTime.now().minusSeconds(10);
+        DataExchangeEntry aged = new DataExchangeEntry(entryId, provider, null, assets, DataExchangeState.NOT_READY,
+                stored.getCreatedAt(), longAgo, stored.getVersion());
+        assertTrue(store.update(aged));
 
-        Field lastUpdatedAtField = DataExchangeEntry.class.getDeclaredField("lastUpdatedAt");
-        lastUpdatedAtField.setAccessible(true);
-        lastUpdatedAtField.set(entry, LocalDateTime.now().minusSeconds(10));
+        manager.processEntries();
 
-        queueManager.processEntries();
+        assertEquals(DataExchangeState.FAILED, store.findById(entryId).getState());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Supplier<String>> warning = ArgumentCaptor.forClass(Supplier.class);
+        verify(monitor, atLeastOnce()).warning(warning.capture());
+        assertTrue(warning.getAllValues().stream().anyMatch(message -> message.get().contains("has FAILED due to timeout")));
+    }
 
-        assertEquals(DataExchangeState.FAILED, entry.getState());
-        verify(monitor).info(contains("Entry has FAILED due to timeout"));
+    @Test
+    void testExchangeContextWrittenOnlyAfterEntryWrite() {
+        List<List<String>> contextAtConflict = new ArrayList<>();
+        InMemoryDataExchangeEntryStore store = new InMemoryDataExchangeEntryStore() {
+            @Override
+            public boolean update(DataExchangeEntry entry) {
+                if (contextAtConflict.isEmpty() && entry.getState() == DataExchangeState.READY) {
+                    // lose the first pairing write against a concurrent one
+                    contextAtConflict.add(ExchangeContext.assetsOfEntry(entry.getId()));
+                    return false;
+                }
+                return super.update(entry);
+            }
+        };
+        DataExchangeQueueManager manager = new DataExchangeQueueManager(store, objectMapper, httpClient, monitor);
+        Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+        Participant consumer = new Participant("did:example:consumer", "Consumer", "http://consumer.com");
+        List<String> assets = List.of("asset-context-1", "asset-context-2");
+        ExchangeContext.clear();
+
+        manager.addProviderNotification(provider, assets);
+        String entryId = manager.addConsumerNotification(consumer, assets);
+
+        assertEquals(List.of(List.of()), contextAtConflict);
+        assertEquals(2, ExchangeContext.assetsOfEntry(entryId).size());
+        ExchangeContext.clear();
     }
 
     @Test
@@ -118,6 +231,49 @@ class DataExchangeQueueManagerTest {
         assertEquals(DataExchangeState.IN_PROGRESS, entry.getState());
     }
 
+    @Test
+    void testUpdateEntryStateManually_TransitionTable() {
+        Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+        Participant consumer = new Participant("did:example:consumer", "Consumer", "http://consumer.com");
+        List<String> assets = List.of("asset1", "asset2");
+
+        String waitingId = queueManager.addProviderNotification(provider, List.of("asset3"));
+        queueManager.addProviderNotification(provider, assets);
+        String entryId = queueManager.addConsumerNotification(consumer, assets);
+
+        // NOT_READY cannot skip READY
+        assertFalse(queueManager.updateEntryStateManually(waitingId, DataExchangeState.IN_PROGRESS));
+        assertTrue(queueManager.updateEntryStateManually(entryId, DataExchangeState.IN_PROGRESS));
+        // a repeated update succeeds without another transition
+        assertTrue(queueManager.updateEntryStateManually(entryId, DataExchangeState.IN_PROGRESS));
+        // IN_PROGRESS does not go back
+        assertFalse(queueManager.updateEntryStateManually(entryId, DataExchangeState.READY));
+        // a notification for the assets of a running exchange does not reset it
+        queueManager.addProviderNotification(provider, assets);
+        assertEquals(DataExchangeState.IN_PROGRESS, queueManager.getEntries().stream()
+                .filter(e -> e.getId().equals(entryId)).findFirst().orElseThrow().getState());
+
+        assertTrue(queueManager.updateEntryStateManually(entryId, DataExchangeState.COMPLETED));
+        // the completed entry is removed once, a second completion finds nothing
+        assertFalse(queueManager.updateEntryStateManually(entryId, DataExchangeState.FAILED));
+        assertEquals(List.of(waitingId), queueManager.getEntries().stream().map(DataExchangeEntry::getId).toList());
+    }
+
+    @Test
+    void testDataExchangeState_Transitions() {
+        assertTrue(DataExchangeState.NOT_READY.canTransitionTo(DataExchangeState.READY));
+        assertTrue(DataExchangeState.READY.canTransitionTo(DataExchangeState.COMPLETED));
+        assertFalse(DataExchangeState.READY.canTransitionTo(DataExchangeState.NOT_READY));
+        assertFalse(DataExchangeState.READY.canTransitionTo(DataExchangeState.READY));
+        assertFalse(DataExchangeState.COMPLETED.canTransitionTo(DataExchangeState.FAILED));
+        assertTrue(DataExchangeState.FAILED.isFinal());
+        assertFalse(DataExchangeState.IN_PROGRESS.isFinal());
+
+        DataExchangeEntry entry = new DataExchangeEntry(null, null, List.of("asset1"));
+        assertFalse(entry.transitionTo(DataExchangeState.COMPLETED));
+        assertEquals(DataExchangeState.NOT_READY, entry.getState());
+    }
+
     @Test
     void testSendCompletionNotification() {
         Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
@@ -137,4 +293,97 @@ class DataExchangeQueueManagerTest {
         verify(monitor).info(contains("Completion Notification send to provider"));
         verify(monitor).info(contains("Completion Notification send to consumer"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPartitions_ConcurrentNotificationsPairOnce() throws Exception {
+        DataExchangeQueueManager manager = new DataExchangeQueueManager(new InMemoryDataExchangeEntryStore(), objectMapper, httpClient,
+                monitor, new MetricsRegistry(), new ExpiringCache<>(10, Duration.ofMinutes(1)), QueueLimits.DEFAULT, 4);
+        Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+        Participant consumer = new Participant("did:example:consumer", "Consumer", "http://consumer.com");
+        int exchanges = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < exchanges; i++) {
+                List<String> assets = List.of("asset" + i, "shared");
+                List<String> reversed = List.of("shared", "asset" + i);
+                results.add(CompletableFuture.supplyAsync(() -> awaitThen(start, () -> manager.addProviderNotification(provider, assets)), executor));
+                results.add(CompletableFuture.supplyAsync(() -> awaitThen(start, () -> manager.addConsumerNotification(consumer, reversed)), executor));
+            }
+            start.countDown();
+            for (int i = 0; i < exchanges; i++) {
+                // both first notifications of an exchange end up in the same entry
+                assertEquals(results.get(2 * i).get(), results.get(2 * i + 1).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(exchanges, manager.getEntries().size());
+        manager.getEntries().forEach(entry -> assertEquals(DataExchangeState.READY, entry.getState()));
+    }
+
+    private static String awaitThen(CountDownLatch latch, Supplier<String> action) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return action.get();
+    }
+
+    @Test
+    void testPartitions_SweepOnlyPartitionOfAssets() throws Exception {
+        InMemoryDataExchangeEntryStore store = new InMemoryDataExchangeEntryStore();
+        DataExchangeQueueManager manager = new DataExchangeQueueManager(store, objectMapper, httpClient, monitor, new MetricsRegistry(),
+                new ExpiringCache<>(10, Duration.ofMinutes(1)), QueueLimits.DEFAULT, 1);
+        Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+        String entryId = manager.addProviderNotification(provider, List.of("asset1", "asset2"));
+        DataExchangeEntry entry = store.findById(entryId);
+        Field lastUpdatedAtField = DataExchangeEntry.class.getDeclaredField("lastUpdatedAt");
+        lastUpdatedAtField.setAccessible(true);
+        lastUpdatedAtField.setLong(entry, lastUpdatedAtField.getLong(entry) - Duration.ofMinutes(1).toNanos());
+        assertTrue(store.update(entry));
+        // written by another replica of a shared store, unknown to the partitions of this one
+        LocalDateTime longAgo = LocalDateTime.now().minusMinutes(1);
+        store.create(new DataExchangeEntry("foreign", provider, null, List.of("asset3"), DataExchangeState.NOT_READY, longAgo, longAgo, 0));
+
+        manager.processEntries(List.of(List.of("asset2", "asset1")));
+
+        assertEquals(DataExchangeState.FAILED, store.findById(entryId).getState());
+        assertEquals(DataExchangeState.NOT_READY, store.findById("foreign").getState());
+
+        manager.processEntries();
+
+        assertNull(store.findById(entryId));
+        assertEquals(DataExchangeState.FAILED, store.findById("foreign").getState());
+    }
+
+    @Test
+    void testMetrics_QueueDepthAndTimeout() {
+        InMemoryDataExchangeEntryStore store = new InMemoryDataExchangeEntryStore();
+        MetricsRegistry metrics = new MetricsRegistry();
+        DataExchangeQueueManager manager = new DataExchangeQueueManager(store, objectMapper, httpClient, monitor, metrics);
+        Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+        Participant consumer = new Participant("did:example:consumer", "Consumer", "http://consumer.com");
+        LocalDateTime longAgo = LocalDateTime.now().minusMinutes(1);
+        store.create(new DataExchangeEntry("stale", provider, null, List.of("asset3"), DataExchangeState.NOT_READY, longAgo, longAgo, 0));
+
+        manager.addProviderNotification(provider, List.of("asset1"));
+        manager.addConsumerNotification(consumer, List.of("asset1"));
+        manager.addProviderNotification(provider, List.of("asset2"));
+
+        String before = metrics.scrape();
+        assertTrue(before.contains("trustee_queue_entries{state=\"NOT_READY\"} 2\n"));
+        assertTrue(before.contains("trustee_queue_entries{state=\"READY\"} 1\n"));
+        assertTrue(before.contains("trustee_entries_created_total 2\n"));
+        assertTrue(before.contains("trustee_entry_state_seconds_count{state=\"NOT_READY\"} 1\n"));
+
+        manager.processEntries();
+
+        String after = metrics.scrape();
+        assertTrue(after.contains("trustee_entries_timed_out_total 1\n"));
+        assertTrue(after.contains("trustee_entry_state_seconds_count{state=\"NOT_READY\"} 2\n"));
+        assertTrue(after.contains("trustee_queue_entries{state=\"FAILED\"} 1\n"));
+    }
+}
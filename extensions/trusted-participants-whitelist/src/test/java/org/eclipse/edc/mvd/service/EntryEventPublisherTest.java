@@ -0,0 +1,57 @@
+package org.eclipse.edc.mvd.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.mvd.model.DataExchangeEntry;
+import org.eclipse.edc.mvd.model.DataExchangeState;
+import org.eclipse.edc.mvd.model.EntryStateEvent;
+import org.eclipse.edc.mvd.model.Participant;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class EntryEventPublisherTest {
+
+    private final EntryEventPublisher publisher = new EntryEventPublisher();
+
+    @Test
+    void shouldDropOldestEventsOfSlowSubscriber() throws InterruptedException {
+        DataExchangeEntry entry = new DataExchangeEntry(null, null, List.of("asset1"));
+        try (EntryEventPublisher.Subscription subscription = publisher.subscribe(event -> true, 2)) {
+            for (int i = 0; i < 5; i++) {
+                publisher.publish(entry, null);
+            }
+
+            assertThat(subscription.takeDropped()).isEqualTo(3);
+            assertThat(subscription.poll(0, TimeUnit.MILLISECONDS).sequence()).isEqualTo(3);
+            assertThat(subscription.poll(0, TimeUnit.MILLISECONDS).sequence()).isEqualTo(4);
+            assertThat(subscription.poll(0, TimeUnit.MILLISECONDS)).isNull();
+        }
+        assertThat(publisher.getSubscriberCount()).isZero();
+    }
+
+    @Test
+    void shouldPublishTransitionsOfQueueManager() throws InterruptedException {
+        DataExchangeQueueManager queueManager = new DataExchangeQueueManager(new ObjectMapper(), mock(HttpClient.class), mock(Monitor.class));
+        Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+        Participant consumer = new Participant("did:example:consumer", "Consumer", "http://consumer.com");
+        EntryEventPublisher.Subscription subscription = queueManager.getEvents().subscribe(event -> event.concerns("Consumer"), 10);
+
+        queueManager.addProviderNotification(provider, List.of("asset1"));
+        String entryId = queueManager.addConsumerNotification(consumer, List.of("asset1"));
+        queueManager.updateEntryStateManually(entryId, DataExchangeState.IN_PROGRESS);
+
+        EntryStateEvent ready = subscription.poll(0, TimeUnit.MILLISECONDS);
+        EntryStateEvent inProgress = subscription.poll(0, TimeUnit.MILLISECONDS);
+        assertThat(ready.entryId()).isEqualTo(entryId);
+        assertThat(ready.previousState()).isEqualTo(DataExchangeState.NOT_READY);
+        assertThat(ready.state()).isEqualTo(DataExchangeState.READY);
+        assertThat(inProgress.state()).isEqualTo(DataExchangeState.IN_PROGRESS);
+        assertThat(subscription.poll(0, TimeUnit.MILLISECONDS)).isNull();
+    }
+}
@@ -0,0 +1,99 @@
+package org.eclipse.edc.mvd.service;
+
+import org.eclipse.edc.mvd.metrics.MetricsRegistry;
+import org.eclipse.edc.mvd.tracing.InMemorySpanExporter;
+import org.eclipse.edc.mvd.tracing.Tracer;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationOutboxTest {
+
+    private final HttpClient httpClient = mock(HttpClient.class);
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final PeerCircuitBreakers circuitBreakers = new PeerCircuitBreakers();
+    private final NotificationOutbox outbox = new NotificationOutbox(
+            new PeerClient(httpClient, metrics, new Tracer(new InMemorySpanExporter()), circuitBreakers),
+            mock(Monitor.class), metrics, 3, Duration.ofMillis(1));
+    private final HttpRequest request = HttpRequest.newBuilder(URI.create("http://trustee/notify"))
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRetryUntilDelivered() throws Exception {
+        HttpResponse<String> unavailable = response(503);
+        HttpResponse<String> ok = response(200);
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Connection refused")))
+                .thenReturn(CompletableFuture.completedFuture(unavailable))
+                .thenReturn(CompletableFuture.completedFuture(ok));
+
+        HttpResponse<String> delivered = outbox.send("notify", request).get(5, TimeUnit.SECONDS);
+
+        assertThat(delivered.statusCode()).isEqualTo(200);
+        assertThat(outbox.getPendingCount()).isZero();
+        assertThat(metrics.scrape())
+                .contains("trustee_outbox_retries_total{hop=\"notify\"} 2")
+                .contains("trustee_outbox_deliveries_total{hop=\"notify\",outcome=\"delivered\"} 1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotRetryRejectedNotification() throws Exception {
+        HttpResponse<String> badRequest = response(400);
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.completedFuture(badRequest));
+
+        assertThat(outbox.send("notify", request).get(5, TimeUnit.SECONDS).statusCode()).isEqualTo(400);
+        verify(httpClient, times(1)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldGiveUpAfterMaxAttempts() {
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Connection refused")));
+
+        assertThatThrownBy(() -> outbox.send("notify", request).get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        verify(httpClient, times(3)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        assertThat(metrics.scrape()).contains("trustee_outbox_deliveries_total{hop=\"notify\",outcome=\"failed\"} 1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldGiveUpAtOnceWhenCircuitIsOpen() {
+        for (int i = 0; i < PeerCircuitBreakers.DEFAULT_FAILURE_THRESHOLD; i++) {
+            circuitBreakers.onFailure(request.uri());
+        }
+
+        assertThatThrownBy(() -> outbox.send("notify", request).get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(PeerClient.CircuitOpenException.class);
+        verify(httpClient, times(0)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        assertThat(metrics.scrape()).doesNotContain("trustee_outbox_retries_total");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<String> response(int status) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        return response;
+    }
+}
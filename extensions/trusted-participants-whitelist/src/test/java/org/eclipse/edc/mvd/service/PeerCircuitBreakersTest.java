@@ -0,0 +1,79 @@
+package org.eclipse.edc.mvd.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeerCircuitBreakersTest {
+
+    private static final URI NOTIFY = URI.create("http://trustee:8080/api/notify");
+    private static final URI HEALTH = URI.create("http://trustee:8080/api/health");
+
+    private final AtomicLong clock = new AtomicLong();
+    private final PeerCircuitBreakers circuitBreakers = new PeerCircuitBreakers(3, Duration.ofNanos(100), clock::get);
+
+    @Test
+    void shouldOpenAfterConsecutiveFailures() {
+        circuitBreakers.onFailure(NOTIFY);
+        circuitBreakers.onFailure(NOTIFY);
+        circuitBreakers.onSuccess(NOTIFY);
+        circuitBreakers.onFailure(NOTIFY);
+        circuitBreakers.onFailure(NOTIFY);
+        assertThat(circuitBreakers.tryAcquire(NOTIFY)).isTrue();
+
+        assertThat(circuitBreakers.onFailure(NOTIFY)).isTrue();
+
+        assertThat(circuitBreakers.tryAcquire(HEALTH)).isFalse();
+        assertThat(circuitBreakers.isOpen("http://trustee:8080/api")).isTrue();
+        assertThat(circuitBreakers.isOpen("http://other:8080/api")).isFalse();
+        assertThat(circuitBreakers.countByState()).containsEntry(PeerCircuitBreakers.State.OPEN, 1);
+    }
+
+    @Test
+    void shouldLetOneTrialThroughAfterOpenDuration() {
+        open();
+        clock.addAndGet(100);
+
+        assertThat(circuitBreakers.tryAcquire(NOTIFY)).isTrue();
+        assertThat(circuitBreakers.tryAcquire(NOTIFY)).isFalse();
+        assertThat(circuitBreakers.getState(NOTIFY)).isEqualTo(PeerCircuitBreakers.State.HALF_OPEN);
+
+        circuitBreakers.onSuccess(NOTIFY);
+
+        assertThat(circuitBreakers.getState(NOTIFY)).isEqualTo(PeerCircuitBreakers.State.CLOSED);
+        assertThat(circuitBreakers.tryAcquire(NOTIFY)).isTrue();
+    }
+
+    @Test
+    void shouldReopenWhenTrialFails() {
+        open();
+        clock.addAndGet(100);
+        circuitBreakers.tryAcquire(NOTIFY);
+
+        assertThat(circuitBreakers.onFailure(NOTIFY)).isTrue();
+
+        assertThat(circuitBreakers.tryAcquire(NOTIFY)).isFalse();
+    }
+
+    @Test
+    void shouldKeepOpenWhileProbesFail() {
+        open();
+        clock.addAndGet(90);
+
+        assertThat(circuitBreakers.onFailure(HEALTH)).isFalse();
+        clock.addAndGet(90);
+
+        assertThat(circuitBreakers.isOpen("http://trustee:8080/api")).isTrue();
+        assertThat(circuitBreakers.tryAcquire(NOTIFY)).isFalse();
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreakers.onFailure(NOTIFY);
+        }
+    }
+}
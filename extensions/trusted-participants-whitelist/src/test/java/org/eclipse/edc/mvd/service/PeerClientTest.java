@@ -0,0 +1,138 @@
+package org.eclipse.edc.mvd.service;
+
+import org.eclipse.edc.mvd.metrics.MetricsRegistry;
+import org.eclipse.edc.mvd.tracing.InMemorySpanExporter;
+import org.eclipse.edc.mvd.tracing.Span;
+import org.eclipse.edc.mvd.tracing.Tracer;
+import org.eclipse.edc.mvd.util.Deadline;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PeerClientTest {
+
+    private final HttpClient httpClient = mock(HttpClient.class);
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final InMemorySpanExporter exporter = new InMemorySpanExporter();
+    private final PeerClient peerClient = new PeerClient(httpClient, metrics, new Tracer(exporter));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPropagateTraceContextAndRecordLatency() throws Exception {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(200);
+        when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(response);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://trustee/notify"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        peerClient.send("notify", request);
+
+        ArgumentCaptor<HttpRequest> sent = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).send(sent.capture(), any(HttpResponse.BodyHandler.class));
+        Span span = exporter.getSpans().get(0);
+        assertThat(sent.getValue().headers().firstValue(Tracer.TRACEPARENT))
+                .hasValue("00-" + span.traceId() + "-" + span.spanId() + "-01");
+        assertThat(sent.getValue().headers().firstValue("Content-Type")).hasValue("application/json");
+        assertThat(span.name()).isEqualTo("notify");
+        assertThat(span.status()).isEqualTo("200");
+        assertThat(metrics.scrape()).contains("trustee_http_client_request_seconds_count{hop=\"notify\",status=\"2xx\"} 1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFailFastOnceCircuitIsOpen() throws Exception {
+        PeerClient client = new PeerClient(httpClient, metrics, new Tracer(exporter),
+                new PeerCircuitBreakers(2, Duration.ofMinutes(1), System::nanoTime));
+        HttpResponse<String> unavailable = mock(HttpResponse.class);
+        when(unavailable.statusCode()).thenReturn(503);
+        when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(unavailable);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://down/notify"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        client.send("notify", request);
+        client.send("notify", request);
+
+        assertThatThrownBy(() -> client.send("notify", request)).isInstanceOf(PeerClient.CircuitOpenException.class);
+        assertThat(client.sendAsync("notify", request)).isCompletedExceptionally();
+        verify(httpClient, times(2)).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        assertThat(metrics.scrape())
+                .contains("trustee_http_client_rejected_total{hop=\"notify\"} 2")
+                .contains("trustee_peer_circuits{state=\"open\"} 1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldEndTrialCallThatFailsBeforeSending() {
+        PeerCircuitBreakers circuitBreakers = new PeerCircuitBreakers(1, Duration.ZERO, System::nanoTime);
+        PeerClient client = new PeerClient(httpClient, metrics, new Tracer(exporter), circuitBreakers);
+        URI uri = URI.create("http://half-open/notify");
+        circuitBreakers.onFailure(uri);
+        when(httpClient.sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class)))
+                .thenThrow(new IllegalArgumentException("invalid request"));
+        HttpRequest request = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.noBody()).build();
+
+        assertThat(client.sendAsync("notify", request)).isCompletedExceptionally();
+        assertThat(client.sendAsync("notify", request)).isCompletedExceptionally();
+
+        // each failed trial reopened the circuit instead of keeping its trial slot taken
+        verify(httpClient, times(2)).sendAsync(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        assertThat(exporter.getSpans()).extracting(Span::status).containsExactly("error", "error");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPropagateDeadlineAndBoundTimeout() throws Exception {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(200);
+        when(httpClient.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(response);
+        Deadline deadline = Deadline.after(Duration.ofSeconds(5));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://trustee/notify"))
+                .timeout(Duration.ofMinutes(1))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        Deadline.within(deadline, () -> {
+            try {
+                return peerClient.send("notify", request);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        ArgumentCaptor<HttpRequest> sent = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient).send(sent.capture(), any(HttpResponse.BodyHandler.class));
+        assertThat(sent.getValue().headers().firstValue(Deadline.HEADER)).hasValue(deadline.header());
+        assertThat(sent.getValue().timeout()).hasValueSatisfying(timeout -> assertThat(timeout).isLessThanOrEqualTo(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotCallPeerAfterDeadline() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://trustee/notify"))
+                .header(Deadline.HEADER, String.valueOf(System.currentTimeMillis() - 1))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        assertThatThrownBy(() -> peerClient.send("notify", request)).isInstanceOf(Deadline.DeadlineExceededException.class);
+        assertThat(peerClient.sendAsync("notify", request)).isCompletedExceptionally();
+        verify(httpClient, never()).send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class));
+        assertThat(metrics.scrape()).contains("trustee_deadline_exceeded_total{step=\"notify\"} 2");
+    }
+}
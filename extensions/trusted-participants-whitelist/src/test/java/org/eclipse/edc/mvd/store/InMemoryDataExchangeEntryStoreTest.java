@@ -0,0 +1,82 @@
+package org.eclipse.edc.mvd.store;
+
+import org.eclipse.edc.mvd.model.DataExchangeEntry;
+import org.eclipse.edc.mvd.model.DataExchangeState;
+import org.eclipse.edc.mvd.model.Participant;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryDataExchangeEntryStoreTest {
+
+    private final InMemoryDataExchangeEntryStore store = new InMemoryDataExchangeEntryStore();
+
+    @Test
+    void shouldPageEntriesCreatedAtSameTimeById() {
+        Participant consumer = new Participant("did:example:consumer", "Consumer", "http://consumer.com");
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (String id : List.of("c", "a", "d", "b")) {
+            store.create(new DataExchangeEntry(id, null, consumer, List.of("asset"), DataExchangeState.NOT_READY, createdAt, createdAt, 0));
+        }
+
+        List<DataExchangeEntry> firstPage = store.find(new DataExchangeEntryQuery(null, "did:example:consumer", null, null, null, 3));
+        List<DataExchangeEntry> secondPage = store.find(new DataExchangeEntryQuery(null, "did:example:consumer", null, null,
+                DataExchangeEntryQuery.Position.of(firstPage.get(2)), 3));
+
+        assertThat(firstPage).extracting(DataExchangeEntry::getId).containsExactly("a", "b", "c");
+        assertThat(secondPage).extracting(DataExchangeEntry::getId).containsExactly("d");
+        assertThat(store.find(new DataExchangeEntryQuery(Set.of(DataExchangeState.READY), null, null, null, null, 0))).isEmpty();
+    }
+
+    @Test
+    void shouldFindEntriesByAssetSet() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        store.create(new DataExchangeEntry("a", null, null, List.of("asset1", "asset2"), DataExchangeState.NOT_READY, createdAt, createdAt, 0));
+        store.create(new DataExchangeEntry("b", null, null, List.of("asset1"), DataExchangeState.NOT_READY, createdAt, createdAt, 0));
+        DataExchangeEntry moved = store.findById("b");
+        moved.setAssets(List.of("asset2", "asset1"));
+        store.update(moved);
+
+        assertThat(store.findByAssets(Set.of("asset1", "asset2"))).extracting(DataExchangeEntry::getId).containsExactlyInAnyOrder("a", "b");
+        assertThat(store.findByAssets(Set.of("asset1"))).isEmpty();
+
+        store.delete("a");
+
+        assertThat(store.findByAssets(Set.of("asset2", "asset1"))).extracting(DataExchangeEntry::getId).containsExactly("b");
+    }
+
+    @Test
+    void shouldKeepIndexConsistentWithConcurrentWrites() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 0, 0);
+        IntStream.range(0, 2000).parallel().forEach(i -> {
+            String id = "entry" + i % 20;
+            switch (i % 3) {
+                case 0 -> store.create(new DataExchangeEntry(id, null, null, List.of("asset1"), DataExchangeState.NOT_READY,
+                        createdAt, createdAt, 0));
+                case 1 -> {
+                    DataExchangeEntry moved = store.findById(id);
+                    if (moved != null) {
+                        moved.setAssets(List.of("asset2"));
+                        store.update(moved);
+                    }
+                }
+                default -> store.delete(id);
+            }
+        });
+
+        List<DataExchangeEntry> indexed = new ArrayList<>();
+        for (String asset : List.of("asset1", "asset2")) {
+            List<DataExchangeEntry> entries = store.findByAssets(Set.of(asset));
+            assertThat(entries).allSatisfy(entry -> assertThat(entry.getAssets()).containsExactly(asset));
+            indexed.addAll(entries);
+        }
+        assertThat(indexed).extracting(DataExchangeEntry::getId)
+                .containsExactlyInAnyOrderElementsOf(store.findAll().stream().map(DataExchangeEntry::getId).toList());
+    }
+}
@@ -0,0 +1,144 @@
+package org.eclipse.edc.mvd.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.edc.mvd.model.DataExchangeEntry;
+import org.eclipse.edc.mvd.model.DataExchangeState;
+import org.eclipse.edc.mvd.model.Participant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcDataExchangeEntryStoreTest {
+
+    private JdbcDataExchangeEntryStore store;
+
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        store = new JdbcDataExchangeEntryStore(() -> DriverManager.getConnection(url), new ObjectMapper());
+    }
+
+    @Test
+    void shouldFindEntriesByAssetSet() {
+        DataExchangeEntry entry = new DataExchangeEntry(null, null, List.of("asset2", "asset1"));
+        store.create(entry);
+        store.create(new DataExchangeEntry(null, null, List.of("asset1")));
+        store.create(new DataExchangeEntry(null, null, List.of("asset1", "asset2", "asset3")));
+
+        assertThat(store.findByAssets(Set.of("asset1", "asset2"))).extracting(DataExchangeEntry::getId).containsExactly(entry.getId());
+        assertThat(store.findByAssets(Set.of("asset4"))).isEmpty();
+    }
+
+    @Test
+    void shouldFindEntriesOfManyAssetSetsAtOnce() {
+        DataExchangeEntry first = new DataExchangeEntry(null, null, List.of("asset1"));
+        DataExchangeEntry second = new DataExchangeEntry(null, null, List.of("asset2", "asset3"));
+        store.create(first);
+        store.create(second);
+        store.create(new DataExchangeEntry(null, null, List.of("asset4")));
+
+        assertThat(store.findByAssetSets(List.of(Set.of("asset1"), Set.of("asset3", "asset2"), Set.of("asset5"))))
+                .extracting(DataExchangeEntry::getId)
+                .containsExactlyInAnyOrder(first.getId(), second.getId());
+    }
+
+    @Test
+    void shouldFillAssetKeysOfExistingRows() throws Exception {
+        String legacyUrl = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(legacyUrl); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE trustee_data_exchange_entry (id VARCHAR(36) PRIMARY KEY, provider VARCHAR(4096), " +
+                    "consumer VARCHAR(4096), assets VARCHAR(65535) NOT NULL, state VARCHAR(16) NOT NULL, " +
+                    "created_at BIGINT NOT NULL, last_updated_at BIGINT NOT NULL, version BIGINT NOT NULL)");
+            statement.execute("INSERT INTO trustee_data_exchange_entry VALUES ('legacy', NULL, NULL, '[\"asset1\"]', 'NOT_READY', 0, 0, 0)");
+        }
+
+        JdbcDataExchangeEntryStore migrated = new JdbcDataExchangeEntryStore(() -> DriverManager.getConnection(legacyUrl), new ObjectMapper());
+
+        assertThat(migrated.findByAssets(Set.of("asset1"))).extracting(DataExchangeEntry::getId).containsExactly("legacy");
+    }
+
+    @Test
+    void shouldCountCreatedEntriesWithoutQueryingAgain() {
+        store.create(new DataExchangeEntry(null, null, List.of("asset1")));
+        assertThat(store.countByState()).containsEntry(DataExchangeState.NOT_READY, 1).hasSize(1);
+
+        store.create(new DataExchangeEntry(null, null, List.of("asset2")));
+
+        assertThat(store.countByState()).containsEntry(DataExchangeState.NOT_READY, 2);
+    }
+
+    @Test
+    void shouldRoundTripEntry() {
+        Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+        DataExchangeEntry entry = new DataExchangeEntry(provider, null, List.of("asset1", "asset2"));
+
+        store.create(entry);
+
+        DataExchangeEntry loaded = store.findById(entry.getId());
+        assertThat(loaded.getProvider()).isEqualTo(provider);
+        assertThat(loaded.getConsumer()).isNull();
+        assertThat(loaded.getAssets()).containsExactly("asset1", "asset2");
+        assertThat(loaded.getState()).isEqualTo(DataExchangeState.NOT_READY);
+        assertThat(store.findAll()).hasSize(1);
+    }
+
+    @Test
+    void shouldRejectStaleUpdate() {
+        DataExchangeEntry entry = new DataExchangeEntry(null, null, List.of("asset1"));
+        store.create(entry);
+        DataExchangeEntry first = store.findById(entry.getId());
+        DataExchangeEntry second = store.findById(entry.getId());
+
+        first.setState(DataExchangeState.READY);
+        second.setState(DataExchangeState.FAILED);
+
+        assertThat(store.update(first)).isTrue();
+        assertThat(store.update(second)).isFalse();
+        assertThat(store.findById(entry.getId()).getState()).isEqualTo(DataExchangeState.READY);
+        assertThat(store.findById(entry.getId()).getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDeleteOnlyOnce() {
+        DataExchangeEntry entry = new DataExchangeEntry(null, null, List.of("asset1"));
+        store.create(entry);
+
+        assertThat(store.delete(entry.getId())).isTrue();
+        assertThat(store.delete(entry.getId())).isFalse();
+        assertThat(store.findById(entry.getId())).isNull();
+    }
+
+    @Test
+    void shouldPageFilteredEntries() {
+        Participant provider = new Participant("did:example:provider", "Provider", "http://provider.com");
+        Participant other = new Participant("did:example:other", "Other", "http://other.com");
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < 5; i++) {
+            store.create(new DataExchangeEntry("entry" + i, provider, null, List.of("asset"), DataExchangeState.READY,
+                    start.plusMinutes(i), start.plusMinutes(i), 0));
+        }
+        store.create(new DataExchangeEntry("failed", provider, null, List.of("asset"), DataExchangeState.FAILED, start, start, 0));
+        store.create(new DataExchangeEntry("other", other, null, List.of("asset"), DataExchangeState.READY, start, start, 0));
+
+        DataExchangeEntryQuery firstQuery = new DataExchangeEntryQuery(Set.of(DataExchangeState.READY), "Provider",
+                start.plusMinutes(1), null, null, 2);
+        List<DataExchangeEntry> firstPage = store.find(firstQuery);
+        DataExchangeEntryQuery.Position position = DataExchangeEntryQuery.Position.parse(
+                DataExchangeEntryQuery.Position.of(firstPage.get(1)).cursor());
+        List<DataExchangeEntry> secondPage = store.find(new DataExchangeEntryQuery(Set.of(DataExchangeState.READY), "Provider",
+                start.plusMinutes(1), null, position, 2));
+
+        assertThat(firstPage).extracting(DataExchangeEntry::getId).containsExactly("entry1", "entry2");
+        assertThat(secondPage).extracting(DataExchangeEntry::getId).containsExactly("entry3", "entry4");
+        assertThat(store.find(DataExchangeEntryQuery.ALL)).hasSize(7);
+    }
+}
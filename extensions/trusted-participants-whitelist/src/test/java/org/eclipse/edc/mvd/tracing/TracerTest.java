@@ -0,0 +1,76 @@
+package org.eclipse.edc.mvd.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TracerTest {
+
+    private static final String TRACEPARENT = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+
+    private final InMemorySpanExporter exporter = new InMemorySpanExporter(10);
+    private final Tracer tracer = new Tracer(exporter);
+
+    @Test
+    void shouldParseAndFormatTraceparent() {
+        TraceContext context = TraceContext.parse(TRACEPARENT);
+
+        assertThat(context.traceId()).isEqualTo("4bf92f3577b34da6a3ce929d0e0e4736");
+        assertThat(context.spanId()).isEqualTo("00f067aa0ba902b7");
+        assertThat(context.traceparent()).isEqualTo(TRACEPARENT);
+        assertThat(TraceContext.parse("garbage")).isNull();
+        assertThat(TraceContext.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01")).isNull();
+        assertThat(TraceContext.parse(TraceContext.newRoot().traceparent())).isNotNull();
+    }
+
+    @Test
+    void shouldContinueIncomingTraceAndNestClientSpans() {
+        tracer.inSpan("notify", TRACEPARENT, () -> {
+            tracer.startClientSpan("notify-completion").end("200");
+            return null;
+        });
+
+        assertThat(exporter.getTrace("4bf92f3577b34da6a3ce929d0e0e4736")).hasSize(2);
+        Span client = exporter.getSpans().get(0);
+        Span server = exporter.getSpans().get(1);
+        assertThat(server.kind()).isEqualTo("SERVER");
+        assertThat(server.parentSpanId()).isEqualTo("00f067aa0ba902b7");
+        assertThat(server.status()).isEqualTo("ok");
+        assertThat(client.kind()).isEqualTo("CLIENT");
+        assertThat(client.parentSpanId()).isEqualTo(server.spanId());
+        assertThat(client.status()).isEqualTo("200");
+        assertThat(tracer.current()).isNull();
+    }
+
+    @Test
+    void shouldStartNewTraceWithoutHeader() {
+        tracer.inSpan("negotiate", null, () -> null);
+
+        Span span = exporter.getSpans().get(0);
+        assertThat(span.parentSpanId()).isNull();
+        assertThat(span.traceId()).hasSize(32);
+    }
+
+    @Test
+    void shouldRecordFailedSpan() {
+        assertThatThrownBy(() -> tracer.inSpan("notify", null, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(exporter.getSpans()).singleElement()
+                .satisfies(span -> {
+                    assertThat(span.status()).isEqualTo("error");
+                    assertThat(span.attributes()).containsEntry("error", "boom");
+                });
+    }
+
+    @Test
+    void shouldKeepOnlyLatestSpans() {
+        for (int i = 0; i < 15; i++) {
+            tracer.startClientSpan("span" + i).end("200");
+        }
+
+        assertThat(exporter.getSpans()).hasSize(10).first().extracting(Span::name).isEqualTo("span5");
+    }
+}
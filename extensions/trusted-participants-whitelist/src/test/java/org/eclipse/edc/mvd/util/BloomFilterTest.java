@@ -0,0 +1,42 @@
+package org.eclipse.edc.mvd.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    private final List<String> keys = IntStream.range(0, 1000).mapToObj(i -> "trustee" + i + "\nhttp://trustee" + i).toList();
+
+    @Test
+    void shouldContainAllKeysAfterDecoding() {
+        BloomFilter filter = BloomFilter.of(keys, 0.01);
+
+        BloomFilter decoded = BloomFilter.decode(filter.getBits(), filter.getHashes());
+
+        assertThat(keys).allMatch(decoded::mightContain);
+    }
+
+    @Test
+    void shouldKeepFalsePositivesNearTheRequestedRate() {
+        BloomFilter filter = BloomFilter.of(keys, 0.01);
+
+        long falsePositives = IntStream.range(0, 10_000).mapToObj(i -> "other" + i).filter(filter::mightContain).count();
+
+        assertThat(falsePositives).isLessThan(300);
+        // about ten bits per key, far less than the keys themselves
+        assertThat(filter.getBits().length()).isLessThan(2000);
+    }
+
+    @Test
+    void shouldRejectInvalidFilters() {
+        assertThatThrownBy(() -> BloomFilter.decode("AAAA", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.decode("", 3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.decode("not base64!", 3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BloomFilter.of(keys, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,44 @@
+package org.eclipse.edc.mvd.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineTest {
+
+    @Test
+    void shouldParseHeaderOrFallBackToDefault() {
+        assertThat(Deadline.parse("1700000000000").epochMillis()).isEqualTo(1700000000000L);
+        assertThat(Deadline.parse("soon")).isNull();
+        assertThat(Deadline.parse(null)).isNull();
+        assertThat(Deadline.parse(null, Duration.ZERO)).isNull();
+        assertThat(Deadline.parse("garbage", Duration.ofMinutes(1)).remaining()).isGreaterThan(Duration.ofSeconds(50));
+    }
+
+    @Test
+    void shouldExpire() {
+        Deadline passed = Deadline.at(System.currentTimeMillis() - 1);
+
+        assertThat(passed.isExpired()).isTrue();
+        assertThat(passed.remaining()).isZero();
+        assertThat(Deadline.after(Duration.ofMinutes(1)).isExpired()).isFalse();
+    }
+
+    @Test
+    void shouldBeCurrentWithinWork() {
+        Deadline outer = Deadline.after(Duration.ofMinutes(1));
+        Deadline inner = Deadline.at(0);
+
+        Deadline.within(outer, () -> {
+            assertThat(Deadline.current()).isSameAs(outer);
+            assertThat(Deadline.within(inner, Deadline::isCurrentExpired)).isTrue();
+            assertThat(Deadline.current()).isSameAs(outer);
+            return null;
+        });
+
+        assertThat(Deadline.current()).isNull();
+        assertThat(Deadline.isCurrentExpired()).isFalse();
+    }
+}
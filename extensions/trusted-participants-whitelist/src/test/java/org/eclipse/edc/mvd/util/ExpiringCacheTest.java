@@ -0,0 +1,98 @@
+package org.eclipse.edc.mvd.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpiringCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ExpiringCache<String, String> cache = new ExpiringCache<>(3, Duration.ofSeconds(10), clock::get);
+
+    @Test
+    void shouldExpireEntries() {
+        cache.put("a", "1");
+        clock.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThat(cache.get("a")).isEqualTo("1");
+
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.get("a")).isNull();
+        cache.put("b", "2");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictOldestEntriesWhenFull() {
+        for (int i = 0; i < 5; i++) {
+            cache.put("key" + i, "value" + i);
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get("key1")).isNull();
+        assertThat(cache.get("key2")).isEqualTo("value2");
+    }
+
+    @Test
+    void shouldKeepRewrittenKeyWhenItsFirstWriteIsEvicted() {
+        cache.put("a", "1");
+        cache.put("a", "2");
+        cache.put("b", "3");
+        cache.put("c", "4");
+
+        assertThat(cache.get("a")).isEqualTo("2");
+    }
+
+    @Test
+    void shouldComputeValueOncePerTtl() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.computeIfAbsent("a", k -> "v" + loads.incrementAndGet());
+        assertThat(cache.computeIfAbsent("a", k -> "v" + loads.incrementAndGet())).isEqualTo("v1");
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(cache.computeIfAbsent("a", k -> "v" + loads.incrementAndGet())).isEqualTo("v2");
+    }
+
+    @Test
+    void shouldComputeOutsideOfTheMap() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> cache.computeIfAbsent("a", k -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "slow";
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // other keys, also computed from within a computation, do not wait for the slow one
+        assertThat(cache.computeIfAbsent("b", k -> cache.computeIfAbsent("c", c -> "c") + "b")).isEqualTo("cb");
+        assertThat(cache.get("a")).isNull();
+        CompletableFuture<String> waiting = CompletableFuture.supplyAsync(() -> cache.computeIfAbsent("a", k -> "other"));
+        release.countDown();
+
+        assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+    }
+
+    @Test
+    void shouldNotCacheFailedComputation() {
+        assertThatThrownBy(() -> cache.computeIfAbsent("a", k -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,40 @@
+package org.eclipse.edc.mvd.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InternerTest {
+
+    private final Interner<String> interner = new Interner<>();
+
+    @Test
+    void shouldReturnFirstEqualInstance() {
+        String first = new String("asset");
+
+        assertThat(interner.intern(first)).isSameAs(first);
+        assertThat(interner.intern(new String("asset"))).isSameAs(first);
+        assertThat(interner.intern(null)).isNull();
+        assertThat(interner.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldInternConcurrently() {
+        List<String> interned = IntStream.range(0, 1000).parallel()
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> interner.intern(new String("asset" + i % 10))).join())
+                .toList();
+
+        // the canonical instances stay referenced by the list, so each value has exactly one
+        Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        instances.addAll(interned);
+        assertThat(instances).hasSize(10);
+        assertThat(interner.size()).isEqualTo(10);
+    }
+}
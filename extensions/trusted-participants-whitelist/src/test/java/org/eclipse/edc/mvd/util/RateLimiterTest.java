@@ -0,0 +1,58 @@
+package org.eclipse.edc.mvd.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final RateLimiter<String> rateLimiter = new RateLimiter<>(10, 3, 100, clock::get);
+
+    @Test
+    void shouldAllowBurstThenLimitRate() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("provider", 1)).isZero();
+        }
+
+        assertThat(rateLimiter.tryAcquire("provider", 1)).isEqualTo(Duration.ofMillis(100));
+        assertThat(rateLimiter.tryAcquire("consumer", 1)).isZero();
+
+        clock.addAndGet(Duration.ofMillis(100).toNanos());
+        assertThat(rateLimiter.tryAcquire("provider", 1)).isZero();
+        assertThat(rateLimiter.tryAcquire("provider", 1)).isPositive();
+    }
+
+    @Test
+    void shouldRefillUpToBurst() {
+        rateLimiter.tryAcquire("provider", 3);
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        assertThat(rateLimiter.tryAcquire("provider", 3)).isZero();
+        assertThat(rateLimiter.tryAcquire("provider", 1)).isPositive();
+    }
+
+    @Test
+    void shouldGrantMoreThanBurstFromFullBucket() {
+        assertThat(rateLimiter.tryAcquire("provider", 10)).isZero();
+
+        assertThat(rateLimiter.tryAcquire("provider", 10)).isEqualTo(Duration.ofMillis(300));
+    }
+
+    @Test
+    void shouldKeepBucketWhileInUse() {
+        RateLimiter<String> perMinute = new RateLimiter<>(1.0 / 60, 3, 100, clock::get);
+        perMinute.tryAcquire("provider", 3);
+
+        // one request per minute for longer than the bucket lives when idle
+        for (int minute = 0; minute < 60; minute++) {
+            clock.addAndGet(Duration.ofMinutes(1).toNanos());
+            assertThat(perMinute.tryAcquire("provider", 1)).isZero();
+        }
+
+        assertThat(perMinute.tryAcquire("provider", 1)).isPositive();
+    }
+}